@@ -0,0 +1,29 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.psi.PsiMethod;
+
+import java.util.List;
+
+/**
+ * 分配统计模式：复用常驻 JVM 中的上下文，统计方法每次调用的分配字节数与 GC，并用 JFR 采样主要分配位置
+ */
+public class AllocationJUnitTestAction extends ProfileJUnitTestAction {
+
+    @Override
+    protected String getCommand() {
+        return "allocations";
+    }
+
+    @Override
+    protected void dispatch(TestDaemonManager daemonManager,
+                            String testClassName,
+                            PsiMethod method,
+                            List<String> parameterTypes,
+                            List<String> jsonArgs) {
+        String signature = TestMethodIndex.signature(method);
+        if (signature == null) {
+            return;
+        }
+        daemonManager.allocations(testClassName, method.getName(), signature, parameterTypes, jsonArgs, getRounds());
+    }
+}
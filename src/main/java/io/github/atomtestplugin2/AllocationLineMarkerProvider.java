@@ -0,0 +1,44 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.codeInsight.daemon.LineMarkerInfo;
+import com.intellij.codeInsight.daemon.LineMarkerProvider;
+import com.intellij.icons.AllIcons;
+import com.intellij.openapi.editor.markup.GutterIconRenderer;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiIdentifier;
+import com.intellij.psi.PsiMethod;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 在统计过分配的方法名旁显示行标记，悬停查看每次调用的分配字节数、GC 与主要分配位置
+ */
+public class AllocationLineMarkerProvider implements LineMarkerProvider {
+
+    @Override
+    public @Nullable LineMarkerInfo<?> getLineMarkerInfo(@NotNull PsiElement element) {
+        if (!(element instanceof PsiIdentifier)
+            || !(element.getParent() instanceof PsiMethod method)
+            || method.getNameIdentifier() != element) {
+            return null;
+        }
+        AllocationReports allocationReports = AllocationReports.getInstance(element.getProject());
+        if (allocationReports.isEmpty()) {
+            return null;
+        }
+        String signature = TestMethodIndex.signature(method);
+        AllocationReports.AllocationReport report = signature == null ? null : allocationReports.get(signature);
+        if (report == null) {
+            return null;
+        }
+        return new LineMarkerInfo<>(
+            element,
+            element.getTextRange(),
+            AllIcons.Actions.ProfileMemory,
+            ignored -> report.toHtml(),
+            null,
+            GutterIconRenderer.Alignment.RIGHT,
+            () -> "Allocation report"
+        );
+    }
+}
@@ -0,0 +1,204 @@
+package io.github.atomtestplugin2;
+
+import com.google.gson.JsonObject;
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 本次 IDE 会话中各方法最近一次的分配统计：每次调用的分配字节数、调用期间的 GC，
+ * 以及 JFR ObjectAllocationSample 按分配位置与对象类型汇总的采样权重
+ */
+@Service(Service.Level.PROJECT)
+public final class AllocationReports {
+
+    private static final String ALLOCATION_SAMPLE = "jdk.ObjectAllocationSample";
+
+    private static final int TOP_SITES = 10;
+
+    private static final String[] LIBRARY_PACKAGES = {"java.", "javax.", "jdk.", "sun.", "com.sun."};
+
+    private final Project project;
+
+    /**
+     * 被测方法签名，格式同 {@link TestMethodIndex#signature} -> 最近一次统计
+     */
+    private final Map<String, AllocationReport> reports = new ConcurrentHashMap<>();
+
+    public AllocationReports(Project project) {
+        this.project = project;
+    }
+
+    public static AllocationReports getInstance(Project project) {
+        return project.getService(AllocationReports.class);
+    }
+
+    public record AllocationSite(String frame, String objectClass, long bytes) {
+    }
+
+    /**
+     * 字节数均为每次调用的值，previousAllocatedBytes 为同一方法上一次统计的平均值，没有时为 -1
+     */
+    public record AllocationReport(String method,
+                                   int rounds,
+                                   long allocatedBytes,
+                                   long p50Bytes,
+                                   long p99Bytes,
+                                   long maxBytes,
+                                   long gcCount,
+                                   long gcMillis,
+                                   int callsWithGc,
+                                   List<AllocationSite> sites,
+                                   long previousAllocatedBytes) {
+
+        public String summary() {
+            StringBuilder summary = new StringBuilder(String.format(
+                "%s 平均每次调用分配 %s（p50 %s，p99 %s，最大 %s）",
+                method, StringUtil.formatFileSize(allocatedBytes), StringUtil.formatFileSize(p50Bytes),
+                StringUtil.formatFileSize(p99Bytes), StringUtil.formatFileSize(maxBytes)
+            ));
+            if (previousAllocatedBytes > 0) {
+                summary.append(String.format("，较上次 %+.1f%%",
+                    (allocatedBytes - previousAllocatedBytes) * 100.0 / previousAllocatedBytes));
+            }
+            summary.append(String.format("<br/>%d 次调用中 %d 次发生 GC，共 %d 次，耗时 %d ms",
+                rounds, callsWithGc, gcCount, gcMillis));
+            return summary.toString();
+        }
+
+        public String toHtml() {
+            StringBuilder html = new StringBuilder("<html>").append(summary());
+            if (sites.isEmpty()) {
+                html.append("<br/>没有分配采样（需要 JDK 16 及以上）");
+            } else {
+                html.append("<br/><br/><b>主要分配位置（按采样权重）</b>");
+                for (AllocationSite site : sites) {
+                    html.append("<br/>").append(StringUtil.formatFileSize(site.bytes())).append("  ")
+                        .append(StringUtil.escapeXmlEntities(site.objectClass())).append("  @ ")
+                        .append(StringUtil.escapeXmlEntities(site.frame()));
+                }
+            }
+            return html.append("</html>").toString();
+        }
+    }
+
+    public boolean isEmpty() {
+        return reports.isEmpty();
+    }
+
+    public @Nullable AllocationReport get(String signature) {
+        return reports.get(signature);
+    }
+
+    /**
+     * 解析后删除 JFR 文件，并刷新编辑器中的行标记，需在后台线程调用
+     */
+    public void load(String signature, int rounds, JsonObject response, Path recording, long threadId) {
+        List<AllocationSite> sites;
+        try {
+            sites = readSites(recording, threadId);
+        } catch (IOException e) {
+            TestDaemonManager.getInstance(project).notify("读取 JFR 分配采样失败：" + e.getMessage(), NotificationType.WARNING);
+            sites = List.of();
+        } finally {
+            try {
+                Files.deleteIfExists(recording);
+            } catch (IOException ignored) {
+                // 临时文件删除失败不影响结果
+            }
+        }
+
+        AllocationReport previous = reports.get(signature);
+        AllocationReport report = new AllocationReport(
+            RunHistory.displayName(signature),
+            rounds,
+            response.get("allocatedBytes").getAsLong(),
+            response.get("p50Bytes").getAsLong(),
+            response.get("p99Bytes").getAsLong(),
+            response.get("maxBytes").getAsLong(),
+            response.get("gcCount").getAsLong(),
+            response.get("gcMillis").getAsLong(),
+            response.get("callsWithGc").getAsInt(),
+            sites,
+            previous == null ? -1 : previous.allocatedBytes()
+        );
+        reports.put(signature, report);
+        TestDaemonManager.getInstance(project).notify(report.summary(), NotificationType.INFORMATION);
+        ApplicationManager.getApplication().invokeLater(
+            () -> DaemonCodeAnalyzer.getInstance(project).restart(), project.getDisposed()
+        );
+    }
+
+    /**
+     * 发起调用的线程上的分配采样，按分配位置与对象类型汇总权重；分配位置取跳过 JDK、反射与代理帧后的第一个帧，
+     * 全部是这类帧时取栈顶的 Java 帧
+     */
+    private static List<AllocationSite> readSites(Path recording, long threadId) throws IOException {
+        Map<String, long[]> weights = new HashMap<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(recording)) {
+            if (!ALLOCATION_SAMPLE.equals(event.getEventType().getName())) {
+                continue;
+            }
+            RecordedThread thread = event.getThread("eventThread");
+            RecordedStackTrace stackTrace = event.getStackTrace();
+            RecordedClass objectClass = event.getClass("objectClass");
+            if (thread == null || thread.getJavaThreadId() != threadId || stackTrace == null || objectClass == null) {
+                continue;
+            }
+            RecordedFrame top = null;
+            for (RecordedFrame frame : stackTrace.getFrames()) {
+                if (!frame.isJavaFrame()) {
+                    continue;
+                }
+                if (top == null) {
+                    top = frame;
+                }
+                if (!isLibraryFrame(frame.getMethod().getType().getName())) {
+                    top = frame;
+                    break;
+                }
+            }
+            if (top == null) {
+                continue;
+            }
+            String frame = top.getMethod().getType().getName() + "." + top.getMethod().getName()
+                + (top.getLineNumber() > 0 ? ":" + top.getLineNumber() : "");
+            weights.computeIfAbsent(frame + "\n" + objectClass.getName(), ignored -> new long[1])[0]
+                += event.getLong("weight");
+        }
+
+        List<AllocationSite> sites = new ArrayList<>();
+        weights.forEach((key, weight) -> {
+            int separator = key.indexOf('\n');
+            sites.add(new AllocationSite(key.substring(0, separator), key.substring(separator + 1), weight[0]));
+        });
+        sites.sort(Comparator.comparingLong(AllocationSite::bytes).reversed());
+        return sites.subList(0, Math.min(TOP_SITES, sites.size()));
+    }
+
+    private static boolean isLibraryFrame(String className) {
+        for (String prefix : LIBRARY_PACKAGES) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        // JDK 动态代理与 CGLIB、ByteBuddy 生成的类
+        return className.contains("$Proxy") || className.contains("$$");
+    }
+}
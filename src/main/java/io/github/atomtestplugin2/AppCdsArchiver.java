@@ -0,0 +1,287 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.execution.RunnerAndConfigurationSettings;
+import com.intellij.execution.ShortenCommandLine;
+import com.intellij.execution.configurations.ModuleBasedConfigurationOptions.ClasspathModification;
+import com.intellij.execution.junit.JUnitConfiguration;
+import com.intellij.execution.process.ProcessEvent;
+import com.intellij.execution.process.ProcessHandler;
+import com.intellij.execution.process.ProcessListener;
+import com.intellij.execution.runners.ProgramRunner;
+import com.intellij.execution.ui.RunContentDescriptor;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.projectRoots.JavaSdk;
+import com.intellij.openapi.projectRoots.JavaSdkVersion;
+import com.intellij.openapi.projectRoots.Sdk;
+import com.intellij.openapi.roots.ModuleRootManager;
+import com.intellij.openapi.roots.OrderEnumerator;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.io.FileUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * AppCDS 归档：按模块测试类路径的指纹生成动态归档，之后的运行通过 SharedArchiveFile 复用已加载的类，
+ * 类路径变化后指纹不同会自动重新生成，并根据 Spring Boot 输出的启动耗时报告节省的时间。
+ * HotSpot 只归档 jar 中的类，且拒绝在用到的 jar 之前出现非空目录，因此模块输出目录会被移到类路径末尾，
+ * 归档只覆盖依赖 jar；模块输出中与依赖同名的类或资源此时不再优先于依赖。
+ * 需在精简类路径之后调用：被排除的 jar 不计入指纹，每种精简结果各有一份归档
+ */
+@Service(Service.Level.PROJECT)
+public final class AppCdsArchiver {
+
+    private static final String SHARED_ARCHIVE_OPTION = "-XX:SharedArchiveFile=";
+
+    private static final String ARCHIVE_AT_EXIT_OPTION = "-XX:ArchiveClassesAtExit=";
+
+    private static final String AUTO_CREATE_OPTION = "-XX:+AutoCreateSharedArchive";
+
+    /**
+     * 每个模块保留的归档数，不同测试类精简后的类路径各对应一份归档，超出时删除最久未使用的
+     */
+    private static final int MAX_ARCHIVES_PER_MODULE = 5;
+
+    private static final Key<List<ClasspathModification>> MODIFICATIONS_KEY =
+        Key.create("atom.test.appcds.classpath.modifications");
+
+    /**
+     * Spring Boot 2.x 输出 "JVM running for"，3.x 输出 "process running for"
+     */
+    private static final Pattern STARTED_PATTERN =
+        Pattern.compile("Started .+ in ([0-9.]+) seconds \\((?:JVM|process) running for ([0-9.]+)\\)");
+
+    private final Project project;
+
+    /**
+     * 模块未使用归档时最近一次的启动耗时（秒），作为对比基准
+     */
+    private final Map<String, Double> baselineSeconds = new ConcurrentHashMap<>();
+
+    public AppCdsArchiver(Project project) {
+        this.project = project;
+    }
+
+    public static AppCdsArchiver getInstance(Project project) {
+        return project.getService(AppCdsArchiver.class);
+    }
+
+    /**
+     * 开启 AppCDS 时为配置加上生成或使用归档的参数并返回统计启动耗时的回调，否则清除相关参数
+     */
+    public @Nullable ProgramRunner.Callback customize(RunnerAndConfigurationSettings settings,
+                                                      @Nullable ProgramRunner.Callback callback) {
+        if (!(settings.getConfiguration() instanceof JUnitConfiguration configuration)) {
+            return callback;
+        }
+        clear(configuration);
+        String vmParameters = configuration.getVMParameters();
+
+        Module module = configuration.getConfigurationModule().getModule();
+        if (!FastTestSettings.getInstance(project).isAppCds() || module == null) {
+            return callback;
+        }
+        Sdk sdk = ModuleRootManager.getInstance(module).getSdk();
+        JavaSdkVersion version = sdk == null ? null : JavaSdk.getInstance().getVersion(sdk);
+        if (version == null || !version.isAtLeast(JavaSdkVersion.JDK_13)) {
+            TestDaemonManager.getInstance(project).notify(
+                "动态 AppCDS 归档需要 JDK 13 及以上版本，本次运行未开启", NotificationType.WARNING
+            );
+            return callback;
+        }
+
+        List<String> outputDirectories = getPaths(OrderEnumerator.orderEntries(module).withoutSdk().withoutLibraries());
+        // 只有 JVM 实际加载的 jar 计入指纹，排除项来自精简类路径或用户的运行配置
+        Set<String> excludedPaths = new HashSet<>();
+        for (ClasspathModification modification : configuration.getClasspathModifications()) {
+            if (modification.getExclude()) {
+                excludedPaths.add(FileUtil.toSystemIndependentName(modification.getPath()));
+            }
+        }
+        List<String> libraries = new ArrayList<>();
+        for (String library : getPaths(OrderEnumerator.orderEntries(module).withoutSdk().librariesOnly())) {
+            if (!excludedPaths.contains(FileUtil.toSystemIndependentName(library))) {
+                libraries.add(library);
+            }
+        }
+        List<String> libraryDirectories = new ArrayList<>();
+        for (String library : libraries) {
+            File[] children = new File(library).listFiles();
+            if (children != null && children.length > 0) {
+                libraryDirectories.add(library);
+            }
+        }
+        if (!libraryDirectories.isEmpty()) {
+            TestDaemonManager.getInstance(project).notify(
+                "依赖中包含目录，HotSpot 无法为其生成 AppCDS 归档，本次运行未开启：" + String.join(", ", libraryDirectories),
+                NotificationType.WARNING
+            );
+            return callback;
+        }
+
+        Path archive;
+        try {
+            archive = getArchive(module, sdk, outputDirectories, libraries);
+        } catch (IOException e) {
+            TestDaemonManager.getInstance(project).notify("准备 AppCDS 归档失败：" + e.getMessage(), NotificationType.ERROR);
+            return callback;
+        }
+        boolean archived = Files.exists(archive);
+        if (version.isAtLeast(JavaSdkVersion.JDK_19)) {
+            // JDK 19 起由 JVM 自行判断归档是否可用并在退出时重建
+            vmParameters = VmParameters.replace(vmParameters, AUTO_CREATE_OPTION, AUTO_CREATE_OPTION);
+            vmParameters = VmParameters.replace(vmParameters, SHARED_ARCHIVE_OPTION, SHARED_ARCHIVE_OPTION + archive);
+        } else if (archived) {
+            vmParameters = VmParameters.replace(vmParameters, SHARED_ARCHIVE_OPTION, SHARED_ARCHIVE_OPTION + archive);
+        } else {
+            vmParameters = VmParameters.replace(vmParameters, ARCHIVE_AT_EXIT_OPTION, ARCHIVE_AT_EXIT_OPTION + archive);
+        }
+        configuration.setVMParameters(vmParameters);
+        // 归档记录的是 JVM 实际看到的类路径，临时 classpath jar 每次路径不同会使归档失效
+        configuration.setShortenCommandLine(ShortenCommandLine.ARGS_FILE);
+        // 先排除再追加，模块输出目录排到所有依赖 jar 之后
+        List<ClasspathModification> modifications = new ArrayList<>();
+        for (String outputDirectory : outputDirectories) {
+            modifications.add(new ClasspathModification(outputDirectory, true));
+        }
+        for (String outputDirectory : outputDirectories) {
+            modifications.add(new ClasspathModification(outputDirectory, false));
+        }
+        ClasspathModifications.replace(configuration, MODIFICATIONS_KEY, modifications);
+
+        String moduleName = module.getName();
+        return new ProgramRunner.Callback() {
+            @Override
+            public void processStarted(RunContentDescriptor descriptor) {
+                if (callback != null) {
+                    callback.processStarted(descriptor);
+                }
+                ProcessHandler processHandler = descriptor == null ? null : descriptor.getProcessHandler();
+                if (processHandler != null) {
+                    attach(processHandler, moduleName, archive, archived);
+                }
+            }
+        };
+    }
+
+    /**
+     * 去掉配置中与归档相关的参数与类路径修改
+     */
+    public void clear(JUnitConfiguration configuration) {
+        String vmParameters = VmParameters.replace(configuration.getVMParameters(), SHARED_ARCHIVE_OPTION, null);
+        vmParameters = VmParameters.replace(vmParameters, ARCHIVE_AT_EXIT_OPTION, null);
+        vmParameters = VmParameters.replace(vmParameters, AUTO_CREATE_OPTION, null);
+        configuration.setVMParameters(vmParameters);
+        ClasspathModifications.replace(configuration, MODIFICATIONS_KEY, List.of());
+    }
+
+    private void attach(ProcessHandler processHandler, String moduleName, Path archive, boolean archived) {
+        AtomicBoolean reported = new AtomicBoolean();
+        processHandler.addProcessListener(new ProcessListener() {
+            @Override
+            public void onTextAvailable(@NotNull ProcessEvent event, @NotNull Key outputType) {
+                Matcher matcher = STARTED_PATTERN.matcher(event.getText());
+                if (matcher.find() && reported.compareAndSet(false, true)) {
+                    report(moduleName, archived, Double.parseDouble(matcher.group(2)));
+                }
+            }
+
+            @Override
+            public void processTerminated(@NotNull ProcessEvent event) {
+                if (!archived && Files.exists(archive)) {
+                    TestDaemonManager.getInstance(project).notify(
+                        "已为模块 " + moduleName + " 生成 AppCDS 归档，下次运行开始生效", NotificationType.INFORMATION
+                    );
+                }
+            }
+        });
+    }
+
+    private void report(String moduleName, boolean archived, double seconds) {
+        if (!archived) {
+            baselineSeconds.put(moduleName, seconds);
+            return;
+        }
+        Double baseline = baselineSeconds.get(moduleName);
+        if (baseline == null) {
+            return;
+        }
+        TestDaemonManager.getInstance(project).notify(
+            String.format("AppCDS：启动耗时 %.2fs，未使用归档时 %.2fs，节省 %.2fs", seconds, baseline, baseline - seconds),
+            NotificationType.INFORMATION
+        );
+    }
+
+    private static List<String> getPaths(OrderEnumerator enumerator) {
+        return enumerator.recursively().classes().getPathsList().getPathList();
+    }
+
+    /**
+     * 归档文件名包含 JDK、依赖 jar 与模块输出目录位置的指纹，该模块的归档超过上限时删除最久未使用的；
+     * 输出目录中的类不会进入归档，只有其路径影响归档是否可用，编译产生的内容变化不计入指纹
+     */
+    private Path getArchive(Module module, Sdk sdk, List<String> outputDirectories, List<String> libraries)
+        throws IOException {
+        StringBuilder classpath = new StringBuilder(String.valueOf(sdk.getHomePath()));
+        for (String path : libraries) {
+            File file = new File(path);
+            classpath.append('\n').append(path).append(':').append(file.length()).append(':').append(file.lastModified());
+        }
+        for (String path : outputDirectories) {
+            classpath.append('\n').append(path);
+        }
+        String fingerprint;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(
+                classpath.toString().getBytes(StandardCharsets.UTF_8)
+            );
+            fingerprint = HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+
+        String prefix = module.getName().replaceAll("[^A-Za-z0-9._-]", "_") + "-";
+        Path directory = Path.of(PathManager.getSystemPath(), "atom-test", "cds");
+        Files.createDirectories(directory);
+        Path archive = directory.resolve(prefix + fingerprint + ".jsa");
+        if (Files.exists(archive)) {
+            Files.setLastModifiedTime(archive, FileTime.fromMillis(System.currentTimeMillis()));
+        }
+        List<Path> archives;
+        try (Stream<Path> files = Files.list(directory)) {
+            archives = files
+                .filter(file -> file.getFileName().toString().matches(Pattern.quote(prefix) + "[0-9a-f]{16}\\.jsa"))
+                .filter(file -> !file.equals(archive))
+                .sorted(Comparator.comparingLong((Path file) -> file.toFile().lastModified()).reversed())
+                .toList();
+        }
+        for (Path stale : archives.subList(Math.min(MAX_ARCHIVES_PER_MODULE - 1, archives.size()), archives.size())) {
+            Files.deleteIfExists(stale);
+        }
+        return archive;
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.openapi.options.Configurable;
+import com.intellij.openapi.project.Project;
+import com.intellij.ui.JBIntSpinner;
+import com.intellij.ui.components.JBCheckBox;
+import com.intellij.util.ui.FormBuilder;
+import org.jetbrains.annotations.Nls;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+
+/**
+ * Settings | Tools | Atom Test：生成测试的运行选项与阈值
+ */
+public class AtomTestConfigurable implements Configurable {
+
+    private final Project project;
+
+    private final JBCheckBox startupProfilingCheckBox = new JBCheckBox("记录 Spring 上下文启动时间线");
+
+    private final JBCheckBox appCdsCheckBox =
+        new JBCheckBox("使用 AppCDS 归档共享依赖 jar 中已加载的类（JDK 13+，模块输出目录移到类路径末尾）");
+
+    private final JBCheckBox trimClasspathCheckBox =
+        new JBCheckBox("使用最小类路径运行，缺少类时自动回退到完整类路径");
+
+    private final JBIntSpinner placeholderDepthSpinner = new JBIntSpinner(PlaceholderJson.DEFAULT_MAX_DEPTH, 1, 20);
+
+    private final JBIntSpinner regressionThresholdSpinner =
+        new JBIntSpinner(RunHistory.DEFAULT_REGRESSION_THRESHOLD, 1, 1000);
+
+    public AtomTestConfigurable(Project project) {
+        this.project = project;
+    }
+
+    @Override
+    public @Nls String getDisplayName() {
+        return "Atom Test";
+    }
+
+    @Override
+    public @Nullable JComponent createComponent() {
+        return FormBuilder.createFormBuilder()
+            .addComponent(startupProfilingCheckBox)
+            .addComponent(appCdsCheckBox)
+            .addComponent(trimClasspathCheckBox)
+            .addLabeledComponent("参数示例 JSON 展开嵌套类型的最大深度:", placeholderDepthSpinner)
+            .addLabeledComponent("调用耗时比最近运行的中位数慢多少百分比时提醒:", regressionThresholdSpinner)
+            .addComponentFillVertically(new JPanel(), 0)
+            .getPanel();
+    }
+
+    @Override
+    public boolean isModified() {
+        FastTestSettings settings = FastTestSettings.getInstance(project);
+        return startupProfilingCheckBox.isSelected() != settings.isStartupProfiling()
+            || appCdsCheckBox.isSelected() != settings.isAppCds()
+            || trimClasspathCheckBox.isSelected() != settings.isTrimClasspath()
+            || placeholderDepthSpinner.getNumber() != settings.getPlaceholderDepth()
+            || regressionThresholdSpinner.getNumber() != settings.getRegressionThreshold();
+    }
+
+    @Override
+    public void apply() {
+        FastTestSettings settings = FastTestSettings.getInstance(project);
+        settings.setStartupProfiling(startupProfilingCheckBox.isSelected());
+        settings.setAppCds(appCdsCheckBox.isSelected());
+        settings.setTrimClasspath(trimClasspathCheckBox.isSelected());
+        settings.setPlaceholderDepth(placeholderDepthSpinner.getNumber());
+        settings.setRegressionThreshold(regressionThresholdSpinner.getNumber());
+    }
+
+    @Override
+    public void reset() {
+        FastTestSettings settings = FastTestSettings.getInstance(project);
+        startupProfilingCheckBox.setSelected(settings.isStartupProfiling());
+        appCdsCheckBox.setSelected(settings.isAppCds());
+        trimClasspathCheckBox.setSelected(settings.isTrimClasspath());
+        placeholderDepthSpinner.setNumber(settings.getPlaceholderDepth());
+        regressionThresholdSpinner.setNumber(settings.getRegressionThreshold());
+    }
+}
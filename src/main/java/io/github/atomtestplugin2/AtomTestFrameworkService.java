@@ -0,0 +1,117 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ModuleRootManager;
+import com.intellij.openapi.roots.ProjectRootModificationTracker;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * atom-test 框架类与模块测试目录结构的缓存，随项目依赖与目录结构变化失效，需在读操作中调用
+ */
+@Service(Service.Level.PROJECT)
+public final class AtomTestFrameworkService {
+
+    public static final String DYNAMIC_BEAN_LOADING = "io.github.atom.test.annonation.DynamicBeanLoading";
+
+    public static final String DYNAMIC_RESOURCE = "io.github.atom.test.annonation.DynamicResource";
+
+    public static final String BASE_TEST_CLASS = "io.github.atom.test.FastDynamicBeanLoadingTest";
+
+    private static final Key<CachedValue<Map<String, VirtualFile>>> TEST_ROOTS_KEY =
+        Key.create("atom.test.module.test.roots");
+
+    private final Project project;
+
+    public AtomTestFrameworkService(Project project) {
+        this.project = project;
+    }
+
+    public static AtomTestFrameworkService getInstance(Project project) {
+        return project.getService(AtomTestFrameworkService.class);
+    }
+
+    /**
+     * 框架类解析结果，未引入 atom-test 时 dynamicBeanLoading 为 null
+     */
+    public record FrameworkClasses(@Nullable PsiClass dynamicBeanLoading,
+                                   @Nullable PsiClass dynamicResource,
+                                   @Nullable PsiClass baseTestClass) {
+
+        boolean isValid() {
+            return (dynamicBeanLoading == null || dynamicBeanLoading.isValid())
+                && (dynamicResource == null || dynamicResource.isValid())
+                && (baseTestClass == null || baseTestClass.isValid());
+        }
+    }
+
+    public FrameworkClasses getFrameworkClasses() {
+        FrameworkClasses frameworkClasses = CachedValuesManager.getManager(project).getCachedValue(
+            project, () -> CachedValueProvider.Result.create(
+                resolveFrameworkClasses(),
+                ProjectRootModificationTracker.getInstance(project)
+            )
+        );
+        // 框架以源码模块形式存在时，PSI 修改可能使缓存的类失效
+        return frameworkClasses.isValid() ? frameworkClasses : resolveFrameworkClasses();
+    }
+
+    /**
+     * 查找模块的 src/test/{name} 目录，不存在时返回 null
+     */
+    public @Nullable VirtualFile findTestRoot(Module module, String name) {
+        Map<String, VirtualFile> testRoots = CachedValuesManager.getManager(project).getCachedValue(
+            module, TEST_ROOTS_KEY, () -> CachedValueProvider.Result.create(
+                new ConcurrentHashMap<String, VirtualFile>(),
+                ProjectRootModificationTracker.getInstance(project),
+                VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS
+            ), false
+        );
+        VirtualFile testRoot = testRoots.get(name);
+        if (testRoot != null && testRoot.isValid()) {
+            return testRoot;
+        }
+        testRoot = lookupTestRoot(module, name);
+        if (testRoot != null) {
+            testRoots.put(name, testRoot);
+        }
+        return testRoot;
+    }
+
+    private FrameworkClasses resolveFrameworkClasses() {
+        JavaPsiFacade javaPsiFacade = JavaPsiFacade.getInstance(project);
+        GlobalSearchScope scope = GlobalSearchScope.allScope(project);
+        PsiClass dynamicBeanLoading = javaPsiFacade.findClass(DYNAMIC_BEAN_LOADING, scope);
+        if (dynamicBeanLoading == null) {
+            return new FrameworkClasses(null, null, null);
+        }
+        return new FrameworkClasses(
+            dynamicBeanLoading,
+            javaPsiFacade.findClass(DYNAMIC_RESOURCE, scope),
+            javaPsiFacade.findClass(BASE_TEST_CLASS, scope)
+        );
+    }
+
+    private @Nullable VirtualFile lookupTestRoot(Module module, String name) {
+        VirtualFile[] contentRoots = ModuleRootManager.getInstance(module).getContentRoots();
+        if (contentRoots.length == 0) {
+            return null;
+        }
+        VirtualFile srcDir = contentRoots[0].findChild("src");
+        VirtualFile testDir = srcDir == null ? null : srcDir.findChild("test");
+        return testDir == null ? null : testDir.findChild(name);
+    }
+}
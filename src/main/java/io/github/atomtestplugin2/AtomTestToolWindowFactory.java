@@ -0,0 +1,37 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowFactory;
+import com.intellij.ui.content.Content;
+import com.intellij.ui.content.ContentFactory;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+
+/**
+ * Atom Test 工具窗口，每种测量结果占一个标签页
+ */
+public class AtomTestToolWindowFactory implements ToolWindowFactory, DumbAware {
+
+    public static final String ID = "Atom Test";
+
+    @Override
+    public void createToolWindowContent(@NotNull Project project, @NotNull ToolWindow toolWindow) {
+        addPanel(toolWindow, new BenchmarkPanel(project), "Benchmark");
+        addPanel(toolWindow, new StartupPanel(project), "Startup");
+        addPanel(toolWindow, new RunHistoryPanel(project), "History");
+        addPanel(toolWindow, new ProfilePanel(project), "Profile");
+    }
+
+    /**
+     * 内容关闭或工具窗口销毁时释放面板，移除其在服务中注册的监听器
+     */
+    private static <T extends JComponent & Disposable> void addPanel(ToolWindow toolWindow, T panel, String title) {
+        Content content = ContentFactory.getInstance().createContent(panel, title, false);
+        content.setDisposer(panel);
+        toolWindow.getContentManager().addContent(content);
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.execution.RunManager;
+import com.intellij.execution.RunnerAndConfigurationSettings;
+import com.intellij.execution.junit.JUnitConfiguration;
+import com.intellij.execution.junit.JUnitConfigurationType;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.LangDataKeys;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleUtilCore;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.psi.*;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.text.JTextComponent;
+import java.util.*;
+
+/**
+ * 批量运行：多选的方法或整个 Bean 的全部 public 方法在同一个 JVM、同一个上下文中运行
+ */
+public class BatchRunJUnitTestAction extends RunJUnitTestAction {
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) {
+            return;
+        }
+
+        List<PsiMethod> methods = getSelectedMethods(e);
+        if (methods.isEmpty()) {
+            Messages.showMessageDialog(project, "No public method selected.", "Error", Messages.getErrorIcon());
+            return;
+        }
+
+        PsiClass containingClass = methods.get(0).getContainingClass();
+        for (PsiMethod method : methods) {
+            if (method.getContainingClass() != containingClass) {
+                Messages.showMessageDialog(
+                    project,
+                    "Selected methods must belong to the same class.",
+                    "Error",
+                    Messages.getErrorIcon()
+                );
+                return;
+            }
+        }
+
+        Module module = e.getData(LangDataKeys.MODULE);
+        if (module == null) {
+            module = ModuleUtilCore.findModuleForPsiElement(containingClass);
+        }
+        if (module == null) {
+            Messages.showMessageDialog(project, "No module found.", "Error", Messages.getErrorIcon());
+            return;
+        }
+
+        Module finalModule = module;
+        resolveTestClass(
+            project, methods.get(0), module, containingClass,
+            testClass -> runBatch(methods, project, testClass, containingClass, finalModule)
+        );
+    }
+
+    private void runBatch(List<PsiMethod> methods,
+                          Project project,
+                          PsiClass testClass,
+                          PsiClass containingClass,
+                          Module module) {
+        // 先收集缺少测试方法的参数输入，再在一次写操作中统一生成
+        Map<PsiMethod, List<JTextComponent>> missingMethods = new LinkedHashMap<>();
+        for (PsiMethod method : methods) {
+            if (getTestMethod(testClass, method) == null) {
+                List<JTextComponent> paramTextFieldList = showParameterDialog(method, project);
+                if (paramTextFieldList == null) {
+                    return;
+                }
+                missingMethods.put(method, paramTextFieldList);
+            }
+        }
+
+        if (!missingMethods.isEmpty()) {
+            WriteCommandAction.runWriteCommandAction(
+                project, "Generate Fast Tests", null, () -> missingMethods.forEach(
+                    (method, paramTextFieldList) ->
+                        addTestMethod(testClass, method, containingClass, paramTextFieldList)
+                )
+            );
+            commitDocment(testClass);
+        }
+
+        Set<String> patterns = new LinkedHashSet<>();
+        for (PsiMethod method : methods) {
+            PsiMethod testMethod = getTestMethod(testClass, method);
+            if (testMethod == null) {
+                Messages.showMessageDialog(project, "创建测试方法失败：" + method.getName(), "Error", Messages.getErrorIcon());
+                return;
+            }
+            patterns.add(testClass.getQualifiedName() + "," + testMethod.getName());
+        }
+
+        LaunchMode launchMode = getLaunchMode(project, testClass);
+        if (launchMode == LaunchMode.DEBUG) {
+            for (PsiMethod method : methods) {
+                setBreakpointAtFirstLine(project, method);
+            }
+        }
+
+        RunManager runManager = RunManager.getInstance(project);
+        RunnerAndConfigurationSettings configurationSettings = runManager.createConfiguration(
+            testClass.getName() + " (" + methods.size() + " methods)",
+            JUnitConfigurationType.getInstance().getConfigurationFactories()[0]
+        );
+        JUnitConfiguration configuration = (JUnitConfiguration) configurationSettings.getConfiguration();
+        configuration.setModule(module);
+        JUnitConfiguration.Data data = configuration.getPersistentData();
+        data.TEST_OBJECT = JUnitConfiguration.TEST_PATTERN;
+        data.setPatterns(new LinkedHashSet<>(patterns));
+        LaunchProfiles.getInstance(project).apply(configuration, module);
+        runConfiguration(configurationSettings, project, launchMode, null);
+    }
+}
@@ -0,0 +1,211 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.*;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.searches.ClassInheritorsSearch;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.InheritanceUtil;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiUtil;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 基于 PSI 的静态 Bean 依赖图，从选中的 Bean 出发沿注入点计算需要加载的最小 Bean 集合
+ */
+@Service(Service.Level.PROJECT)
+public final class BeanDependencyGraph {
+
+    private static final Key<CachedValue<Map<String, Set<String>>>> GRAPH_KEY =
+        Key.create("atom.test.bean.dependency.graph");
+
+    private static final Set<String> INJECT_ANNOTATIONS = Set.of(
+        "org.springframework.beans.factory.annotation.Autowired",
+        "javax.annotation.Resource",
+        "jakarta.annotation.Resource",
+        "javax.inject.Inject",
+        "jakarta.inject.Inject"
+    );
+
+    private static final Set<String> BEAN_ANNOTATIONS = Set.of(
+        "org.springframework.stereotype.Component",
+        "org.springframework.stereotype.Service",
+        "org.springframework.stereotype.Repository",
+        "org.springframework.stereotype.Controller",
+        "org.springframework.web.bind.annotation.RestController",
+        "org.springframework.context.annotation.Configuration",
+        "org.apache.ibatis.annotations.Mapper"
+    );
+
+    private static final Set<String> CONTAINER_TYPES = Set.of(
+        "java.util.List",
+        "java.util.Set",
+        "java.util.Collection",
+        "java.util.Map",
+        "java.util.Optional",
+        "org.springframework.beans.factory.ObjectProvider",
+        "javax.inject.Provider",
+        "jakarta.inject.Provider"
+    );
+
+    private final Project project;
+
+    public BeanDependencyGraph(Project project) {
+        this.project = project;
+    }
+
+    public static BeanDependencyGraph getInstance(Project project) {
+        return project.getService(BeanDependencyGraph.class);
+    }
+
+    /**
+     * 计算从 rootBean 可达的 Bean 全限定名（包含自身），需在读操作中调用；结果按模块缓存，PSI 变化后失效
+     */
+    public Set<String> getReachableBeans(Module module, PsiClass rootBean) {
+        String rootName = rootBean.getQualifiedName();
+        if (rootName == null) {
+            return Collections.emptySet();
+        }
+        Map<String, Set<String>> moduleGraph = CachedValuesManager.getManager(project).getCachedValue(
+            module, GRAPH_KEY, () -> CachedValueProvider.Result.create(
+                new ConcurrentHashMap<String, Set<String>>(),
+                PsiModificationTracker.MODIFICATION_COUNT
+            ), false
+        );
+        return moduleGraph.computeIfAbsent(rootName, name -> collectReachableBeans(module, rootBean));
+    }
+
+    private Set<String> collectReachableBeans(Module module, PsiClass rootBean) {
+        GlobalSearchScope scope = GlobalSearchScope.moduleWithDependenciesAndLibrariesScope(module);
+        Set<String> visited = new LinkedHashSet<>();
+        Deque<PsiClass> queue = new ArrayDeque<>();
+        queue.add(rootBean);
+        while (!queue.isEmpty()) {
+            PsiClass beanClass = queue.poll();
+            String qualifiedName = beanClass.getQualifiedName();
+            if (qualifiedName == null || !visited.add(qualifiedName)) {
+                continue;
+            }
+            for (PsiType dependencyType : getInjectedTypes(beanClass)) {
+                for (PsiClass candidate : resolveBeanClasses(dependencyType, scope)) {
+                    if (!visited.contains(candidate.getQualifiedName())) {
+                        queue.add(candidate);
+                    }
+                }
+            }
+        }
+        return visited;
+    }
+
+    private List<PsiType> getInjectedTypes(PsiClass beanClass) {
+        List<PsiType> types = new ArrayList<>();
+        for (PsiField field : beanClass.getAllFields()) {
+            if (!field.hasModifierProperty(PsiModifier.STATIC) && isInjectionPoint(field)) {
+                types.add(field.getType());
+            }
+        }
+
+        // 构造器注入：带注入注解的构造器，或唯一的构造器
+        PsiMethod[] constructors = beanClass.getConstructors();
+        for (PsiMethod constructor : constructors) {
+            if (constructors.length == 1 || isInjectionPoint(constructor)) {
+                for (PsiParameter parameter : constructor.getParameterList().getParameters()) {
+                    types.add(parameter.getType());
+                }
+            }
+        }
+
+        // setter 注入
+        for (PsiMethod method : beanClass.getAllMethods()) {
+            if (!method.isConstructor() && isInjectionPoint(method)) {
+                for (PsiParameter parameter : method.getParameterList().getParameters()) {
+                    types.add(parameter.getType());
+                }
+            }
+        }
+        return types;
+    }
+
+    private boolean isInjectionPoint(PsiModifierListOwner owner) {
+        for (String annotation : INJECT_ANNOTATIONS) {
+            if (owner.hasAnnotation(annotation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<PsiClass> resolveBeanClasses(PsiType type, GlobalSearchScope scope) {
+        if (type instanceof PsiArrayType arrayType) {
+            return resolveBeanClasses(arrayType.getComponentType(), scope);
+        }
+        if (!(type instanceof PsiClassType classType)) {
+            return Collections.emptyList();
+        }
+        PsiClass resolvedClass = classType.resolve();
+        if (resolvedClass == null) {
+            return Collections.emptyList();
+        }
+
+        // 集合、Optional、ObjectProvider 等取元素类型
+        if (CONTAINER_TYPES.contains(resolvedClass.getQualifiedName())) {
+            PsiType[] typeArguments = classType.getParameters();
+            if (typeArguments.length == 0) {
+                return Collections.emptyList();
+            }
+            return resolveBeanClasses(typeArguments[typeArguments.length - 1], scope);
+        }
+
+        String resolvedName = resolvedClass.getQualifiedName();
+        if (resolvedName == null || resolvedName.startsWith("java.")) {
+            return Collections.emptyList();
+        }
+
+        List<PsiClass> beanClasses = new ArrayList<>();
+        if (!resolvedClass.isInterface() && !PsiUtil.isAbstractClass(resolvedClass)) {
+            beanClasses.add(resolvedClass);
+        }
+        if (resolvedClass.isInterface() && isBean(resolvedClass)) {
+            // Mapper 等接口本身就是 Bean
+            beanClasses.add(resolvedClass);
+        }
+        if (resolvedClass.isInterface() || PsiUtil.isAbstractClass(resolvedClass)) {
+            for (PsiClass inheritor : ClassInheritorsSearch.search(resolvedClass, scope, true)) {
+                if (!inheritor.isInterface() && !PsiUtil.isAbstractClass(inheritor) && isBean(inheritor)) {
+                    beanClasses.add(inheritor);
+                }
+            }
+        }
+        return beanClasses;
+    }
+
+    private boolean isBean(PsiClass psiClass) {
+        PsiModifierList modifierList = psiClass.getModifierList();
+        if (modifierList == null) {
+            return false;
+        }
+        for (PsiAnnotation annotation : modifierList.getAnnotations()) {
+            String annotationName = annotation.getQualifiedName();
+            if (annotationName == null) {
+                continue;
+            }
+            if (BEAN_ANNOTATIONS.contains(annotationName)) {
+                return true;
+            }
+            // 元注解，如自定义的 @Service 组合注解
+            PsiClass annotationClass = annotation.resolveAnnotationType();
+            if (annotationClass != null
+                && BEAN_ANNOTATIONS.stream().anyMatch(annotationClass::hasAnnotation)) {
+                return true;
+            }
+        }
+        return InheritanceUtil.isInheritor(psiClass, "org.springframework.data.repository.Repository");
+    }
+}
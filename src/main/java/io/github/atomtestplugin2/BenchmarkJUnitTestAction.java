@@ -0,0 +1,69 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.DialogBuilder;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.psi.PsiMethod;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBTextField;
+import com.intellij.util.ui.JBUI;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.List;
+
+/**
+ * Benchmark 模式：复用常驻 JVM 中的上下文，对方法预热后多次计时调用并统计分位数
+ */
+public class BenchmarkJUnitTestAction extends WarmRunJUnitTestAction {
+
+    private int warmup = 1000;
+
+    private int iterations = 10000;
+
+    @Override
+    protected boolean confirmDispatch(Project project, PsiMethod method) {
+        DialogBuilder dialogBuilder = new DialogBuilder(project);
+        dialogBuilder.setTitle("Benchmark " + method.getName());
+
+        JTextField warmupField = new JBTextField(String.valueOf(warmup));
+        JTextField iterationsField = new JBTextField(String.valueOf(iterations));
+        JPanel panel = new JPanel(new GridLayout(2, 2, 10, 5));
+        panel.setBorder(JBUI.Borders.empty(10));
+        panel.add(new JBLabel("预热次数:"));
+        panel.add(warmupField);
+        panel.add(new JBLabel("计时次数:"));
+        panel.add(iterationsField);
+
+        dialogBuilder.setCenterPanel(panel);
+        dialogBuilder.addOkAction();
+        dialogBuilder.addCancelAction();
+        if (dialogBuilder.show() != DialogWrapper.OK_EXIT_CODE) {
+            return false;
+        }
+
+        try {
+            int warmupValue = Integer.parseInt(warmupField.getText().trim());
+            int iterationsValue = Integer.parseInt(iterationsField.getText().trim());
+            if (warmupValue < 0 || iterationsValue < 1) {
+                throw new NumberFormatException();
+            }
+            warmup = warmupValue;
+            iterations = iterationsValue;
+            return true;
+        } catch (NumberFormatException ex) {
+            Messages.showMessageDialog(project, "预热次数需为非负整数，计时次数需为正整数", "Error", Messages.getErrorIcon());
+            return false;
+        }
+    }
+
+    @Override
+    protected void dispatch(TestDaemonManager daemonManager,
+                            String testClassName,
+                            PsiMethod method,
+                            List<String> parameterTypes,
+                            List<String> jsonArgs) {
+        daemonManager.benchmark(testClassName, method.getName(), parameterTypes, jsonArgs, warmup, iterations);
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.project.Project;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Benchmark 结果表格，延迟单位为微秒，最后一列为 p50 相对同一方法上一次结果的变化
+ */
+public class BenchmarkPanel extends JPanel implements Disposable {
+
+    private static final String[] COLUMNS = {
+        "Time", "Method", "Iterations", "ops/s", "p50 (us)", "p90 (us)", "p99 (us)", "max (us)", "alloc/op (B)",
+        "p50 vs previous"
+    };
+
+    private final BenchmarkResults benchmarkResults;
+
+    private final DefaultTableModel tableModel = new DefaultTableModel(COLUMNS, 0) {
+        @Override
+        public boolean isCellEditable(int row, int column) {
+            return false;
+        }
+    };
+
+    public BenchmarkPanel(Project project) {
+        super(new BorderLayout());
+        this.benchmarkResults = BenchmarkResults.getInstance(project);
+
+        JButton rerunButton = new JButton("Rerun Last");
+        rerunButton.addActionListener(event -> benchmarkResults.rerunLast());
+        JPanel toolbar = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        toolbar.add(rerunButton);
+
+        add(toolbar, BorderLayout.NORTH);
+        add(new JBScrollPane(new JBTable(tableModel)), BorderLayout.CENTER);
+
+        benchmarkResults.addListener(this::refresh, this);
+        refresh();
+    }
+
+    @Override
+    public void dispose() {
+        // 服务中的监听器以本面板为父 Disposable 注册，随工具窗口内容一起移除
+    }
+
+    private void refresh() {
+        tableModel.setRowCount(0);
+        SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss");
+        for (BenchmarkResults.BenchmarkResult result : benchmarkResults.getResults()) {
+            BenchmarkResults.BenchmarkResult previous = benchmarkResults.getPrevious(result);
+            tableModel.insertRow(0, new Object[]{
+                timeFormat.format(new Date(result.timestamp())),
+                result.method(),
+                result.iterations(),
+                String.format("%.1f", result.opsPerSecond()),
+                toMicros(result.p50()),
+                toMicros(result.p90()),
+                toMicros(result.p99()),
+                toMicros(result.max()),
+                result.allocatedBytesPerOp() < 0 ? "n/a" : result.allocatedBytesPerOp(),
+                previous == null || previous.p50() == 0
+                    ? ""
+                    : String.format("%+.1f%%", (result.p50() - previous.p50()) * 100.0 / previous.p50())
+            });
+        }
+    }
+
+    private static String toMicros(long nanos) {
+        return String.format("%.2f", nanos / 1000.0);
+    }
+}
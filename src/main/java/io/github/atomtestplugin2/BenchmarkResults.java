@@ -0,0 +1,106 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowManager;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 本次 IDE 会话中的 Benchmark 结果，保留历史以便与上一次结果对比
+ */
+@Service(Service.Level.PROJECT)
+public final class BenchmarkResults {
+
+    private final Project project;
+
+    private final List<BenchmarkResult> results = new CopyOnWriteArrayList<>();
+
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile Runnable lastRun;
+
+    public BenchmarkResults(Project project) {
+        this.project = project;
+    }
+
+    public static BenchmarkResults getInstance(Project project) {
+        return project.getService(BenchmarkResults.class);
+    }
+
+    public record BenchmarkResult(String method,
+                                  long timestamp,
+                                  int iterations,
+                                  long totalNanos,
+                                  long p50,
+                                  long p90,
+                                  long p99,
+                                  long max,
+                                  long allocatedBytesPerOp) {
+
+        public double opsPerSecond() {
+            return totalNanos == 0 ? 0 : iterations * 1_000_000_000.0 / totalNanos;
+        }
+    }
+
+    public List<BenchmarkResult> getResults() {
+        return new ArrayList<>(results);
+    }
+
+    /**
+     * 同一方法在 result 之前的最近一次结果
+     */
+    public @Nullable BenchmarkResult getPrevious(BenchmarkResult result) {
+        BenchmarkResult previous = null;
+        for (BenchmarkResult candidate : results) {
+            if (candidate == result) {
+                return previous;
+            }
+            if (candidate.method().equals(result.method())) {
+                previous = candidate;
+            }
+        }
+        return previous;
+    }
+
+    public void add(BenchmarkResult result) {
+        results.add(result);
+        ApplicationManager.getApplication().invokeLater(() -> {
+            listeners.forEach(Runnable::run);
+            ToolWindow toolWindow = ToolWindowManager.getInstance(project).getToolWindow(AtomTestToolWindowFactory.ID);
+            if (toolWindow != null) {
+                toolWindow.show();
+            }
+        }, project.getDisposed());
+    }
+
+    /**
+     * 监听器随 parentDisposable 一起移除
+     */
+    public void addListener(Runnable listener, Disposable parentDisposable) {
+        listeners.add(listener);
+        Disposer.register(parentDisposable, () -> listeners.remove(listener));
+    }
+
+    public void setLastRun(Runnable lastRun) {
+        this.lastRun = lastRun;
+    }
+
+    public boolean canRerun() {
+        return lastRun != null;
+    }
+
+    public void rerunLast() {
+        Runnable run = lastRun;
+        if (run != null) {
+            run.run();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.execution.configurations.ModuleBasedConfigurationOptions.ClasspathModification;
+import com.intellij.execution.junit.JUnitConfiguration;
+import com.intellij.openapi.util.Key;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 运行配置类路径修改的增删工具：各功能记住自己加入的修改并只替换这部分，保留用户在运行配置中设置的修改
+ */
+public final class ClasspathModifications {
+
+    private ClasspathModifications() {
+    }
+
+    /**
+     * 移除 owner 上次加入的修改，再追加 modifications 并记为 owner 所有
+     */
+    public static void replace(JUnitConfiguration configuration,
+                               Key<List<ClasspathModification>> owner,
+                               List<ClasspathModification> modifications) {
+        List<ClasspathModification> result = new ArrayList<>(configuration.getClasspathModifications());
+        List<ClasspathModification> previous = configuration.getUserData(owner);
+        if (previous != null) {
+            for (ClasspathModification modification : previous) {
+                result.removeIf(existing -> existing.getExclude() == modification.getExclude()
+                    && existing.getPath().equals(modification.getPath()));
+            }
+        }
+        result.addAll(modifications);
+        configuration.setClasspathModifications(result);
+        configuration.putUserData(owner, modifications.isEmpty() ? null : new ArrayList<>(modifications));
+    }
+}
@@ -0,0 +1,443 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.codeInsight.AnnotationUtil;
+import com.intellij.execution.RunnerAndConfigurationSettings;
+import com.intellij.execution.configurations.ModuleBasedConfigurationOptions.ClasspathModification;
+import com.intellij.execution.junit.JUnitConfiguration;
+import com.intellij.execution.process.ProcessEvent;
+import com.intellij.execution.process.ProcessHandler;
+import com.intellij.execution.process.ProcessListener;
+import com.intellij.execution.runners.ExecutionUtil;
+import com.intellij.execution.runners.ProgramRunner;
+import com.intellij.execution.ui.RunContentDescriptor;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.OrderEnumerator;
+import com.intellij.openapi.roots.ProjectRootModificationTracker;
+import com.intellij.openapi.util.JDOMUtil;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.vfs.JarFileSystem;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.GlobalSearchScopesCore;
+import com.intellij.psi.search.searches.AnnotatedElementsSearch;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import org.jdom.Element;
+import org.jdom.JDOMException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 精简运行类路径：从测试类、启动类与可达 Bean 直接引用的 jar 出发，沿 jar 内 Maven pom 声明的依赖求闭包，
+ * 其余 jar 通过运行配置的类路径修改排除；自动配置 jar 的可选依赖与 ConditionalOnClass 引用的 jar 会改变上下文中的 Bean，
+ * 一并保留。运行时一出现 ClassNotFoundException 就停止进程，回退到完整类路径重新运行。
+ * 计算结果按测试类缓存，源码或项目结构变化后失效
+ */
+@Service(Service.Level.PROJECT)
+public final class ClasspathTrimmer {
+
+    private static final Key<CachedValue<JarIndex>> JAR_INDEX_KEY = Key.create("atom.test.classpath.jar.index");
+
+    private static final Key<CachedValue<Map<String, List<String>>>> EXCLUDED_JARS_KEY =
+        Key.create("atom.test.classpath.excluded.jars");
+
+    private static final Key<List<ClasspathModification>> MODIFICATIONS_KEY =
+        Key.create("atom.test.classpath.modifications");
+
+    private static final String[] AUTO_CONFIGURATION_FILES = {
+        "META-INF/spring.factories",
+        "META-INF/spring/org.springframework.boot.autoconfigure.AutoConfiguration.imports"
+    };
+
+    private static final String SERVICES_DIRECTORY = "META-INF/services";
+
+    private static final String CONDITIONAL_ON_CLASS =
+        "org.springframework.boot.autoconfigure.condition.ConditionalOnClass";
+
+    private static final Set<String> SKIPPED_SCOPES = Set.of("test", "provided", "system", "import");
+
+    private final Project project;
+
+    /**
+     * 已回退到完整类路径的模块，记录回退时的项目结构版本，依赖变化后重新尝试精简
+     */
+    private final Map<String, Long> fallbackModules = new ConcurrentHashMap<>();
+
+    public ClasspathTrimmer(Project project) {
+        this.project = project;
+    }
+
+    public static ClasspathTrimmer getInstance(Project project) {
+        return project.getService(ClasspathTrimmer.class);
+    }
+
+    /**
+     * 模块依赖 jar 的 Maven 元数据：坐标 -> jar、jar -> 声明的依赖坐标与可选依赖坐标，自动配置 jar 以及必须保留的 jar
+     */
+    private record JarIndex(List<String> jars,
+                            Map<String, String> jarsByCoordinate,
+                            Map<String, Set<String>> dependencies,
+                            Map<String, Set<String>> optionalDependencies,
+                            Set<String> autoConfigurationJars,
+                            Set<String> alwaysKept) {
+    }
+
+    /**
+     * 开启精简类路径时为配置排除用不到的 jar 并返回监听缺类失败的回调，否则清除排除项
+     */
+    public @Nullable ProgramRunner.Callback customize(RunnerAndConfigurationSettings settings,
+                                                      @Nullable ProgramRunner.Callback callback) {
+        if (!(settings.getConfiguration() instanceof JUnitConfiguration configuration)) {
+            return callback;
+        }
+        ClasspathModifications.replace(configuration, MODIFICATIONS_KEY, List.of());
+
+        Module module = configuration.getConfigurationModule().getModule();
+        if (!FastTestSettings.getInstance(project).isTrimClasspath() || module == null) {
+            return callback;
+        }
+        long rootModificationCount = ProjectRootModificationTracker.getInstance(project).getModificationCount();
+        Long fallbackAt = fallbackModules.get(module.getName());
+        if (fallbackAt != null && fallbackAt == rootModificationCount) {
+            return callback;
+        }
+        fallbackModules.remove(module.getName());
+
+        String testClassName = configuration.getPersistentData().getMainClassName();
+        if (testClassName == null) {
+            return callback;
+        }
+        Map<String, List<String>> cachedExcludedJars = CachedValuesManager.getManager(project).getCachedValue(
+            module, EXCLUDED_JARS_KEY, () -> CachedValueProvider.Result.create(
+                new ConcurrentHashMap<>(),
+                PsiModificationTracker.MODIFICATION_COUNT,
+                ProjectRootModificationTracker.getInstance(project)
+            ), false
+        );
+        List<String> excludedJars = cachedExcludedJars.get(testClassName);
+        if (excludedJars == null) {
+            try {
+                excludedJars = ProgressManager.getInstance().runProcessWithProgressSynchronously(
+                    () -> ReadAction.compute(() -> computeExcludedJars(module, testClassName)),
+                    "Computing Minimal Classpath",
+                    true,
+                    project
+                );
+            } catch (ProcessCanceledException e) {
+                return callback;
+            }
+            cachedExcludedJars.put(testClassName, excludedJars);
+        }
+        if (excludedJars.isEmpty()) {
+            return callback;
+        }
+        List<ClasspathModification> modifications = new ArrayList<>();
+        for (String jar : excludedJars) {
+            modifications.add(new ClasspathModification(jar, true));
+        }
+        ClasspathModifications.replace(configuration, MODIFICATIONS_KEY, modifications);
+
+        String moduleName = module.getName();
+        return new ProgramRunner.Callback() {
+            @Override
+            public void processStarted(RunContentDescriptor descriptor) {
+                if (callback != null) {
+                    callback.processStarted(descriptor);
+                }
+                ProcessHandler processHandler = descriptor == null ? null : descriptor.getProcessHandler();
+                if (processHandler != null) {
+                    attach(processHandler, descriptor, configuration, moduleName, rootModificationCount);
+                }
+            }
+        };
+    }
+
+    private void attach(ProcessHandler processHandler,
+                        RunContentDescriptor descriptor,
+                        JUnitConfiguration configuration,
+                        String moduleName,
+                        long rootModificationCount) {
+        AtomicBoolean classMissing = new AtomicBoolean();
+        processHandler.addProcessListener(new ProcessListener() {
+            @Override
+            public void onTextAvailable(@NotNull ProcessEvent event, @NotNull Key outputType) {
+                String text = event.getText();
+                // Debug 运行无限重复，等进程结束前会一直重复失败，第一次缺类就停止并重跑
+                if (!text.contains("java.lang.ClassNotFoundException") && !text.contains("java.lang.NoClassDefFoundError")
+                    || !classMissing.compareAndSet(false, true)) {
+                    return;
+                }
+                fallbackModules.put(moduleName, rootModificationCount);
+                ApplicationManager.getApplication().invokeLater(() -> {
+                    processHandler.destroyProcess();
+                    ClasspathModifications.replace(configuration, MODIFICATIONS_KEY, List.of());
+                    // 归档按精简后的类路径生成，重跑时不再匹配，下次启动会按完整类路径重新生成
+                    AppCdsArchiver.getInstance(project).clear(configuration);
+                    TestDaemonManager.getInstance(project).notify(
+                        "精简类路径后缺少类，模块 " + moduleName + " 已回退到完整类路径并重新运行", NotificationType.WARNING
+                    );
+                    ExecutionUtil.restart(descriptor);
+                }, project.getDisposed());
+            }
+        });
+    }
+
+    private List<String> computeExcludedJars(Module module, String testClassName) {
+        JarIndex jarIndex = CachedValuesManager.getManager(project).getCachedValue(
+            module, JAR_INDEX_KEY, () -> CachedValueProvider.Result.create(
+                buildJarIndex(module),
+                ProjectRootModificationTracker.getInstance(project)
+            ), false
+        );
+
+        PsiClass testClass = JavaPsiFacade.getInstance(project).findClass(
+            testClassName, GlobalSearchScope.moduleWithDependenciesAndLibrariesScope(module, true)
+        );
+        if (testClass == null) {
+            return Collections.emptyList();
+        }
+
+        // 必须保留的 jar 同样沿依赖求闭包，例如 JDBC 驱动自身的依赖
+        Set<String> kept = new HashSet<>();
+        Deque<String> queue = new ArrayDeque<>(jarIndex.alwaysKept());
+        queue.addAll(collectReferencedJars(module, testClass));
+        while (!queue.isEmpty()) {
+            String jar = queue.poll();
+            if (!kept.add(jar)) {
+                continue;
+            }
+            Set<String> coordinates = new HashSet<>(jarIndex.dependencies().getOrDefault(jar, Set.of()));
+            if (jarIndex.autoConfigurationJars().contains(jar)) {
+                // 自动配置按类是否存在启用，可选依赖在类路径上时会改变上下文中的 Bean
+                coordinates.addAll(jarIndex.optionalDependencies().getOrDefault(jar, Set.of()));
+            }
+            for (String coordinate : coordinates) {
+                String dependencyJar = jarIndex.jarsByCoordinate().get(coordinate);
+                if (dependencyJar != null && !kept.contains(dependencyJar)) {
+                    queue.add(dependencyJar);
+                }
+            }
+        }
+
+        List<String> excluded = new ArrayList<>();
+        for (String jar : jarIndex.jars()) {
+            if (!kept.contains(jar)) {
+                excluded.add(jar);
+            }
+        }
+        return excluded;
+    }
+
+    /**
+     * 测试类（含父类）、启动类以及注入 Bean 可达的 Bean 源文件中引用到的 jar
+     */
+    private Set<String> collectReferencedJars(Module module, PsiClass testClass) {
+        Set<PsiFile> files = new LinkedHashSet<>();
+        files.add(testClass.getContainingFile());
+
+        PsiAnnotation dynamicBeanLoading = testClass.getAnnotation(AtomTestFrameworkService.DYNAMIC_BEAN_LOADING);
+        if (dynamicBeanLoading != null
+            && dynamicBeanLoading.findAttributeValue("mainClass") instanceof PsiClassObjectAccessExpression mainClass
+            && mainClass.getOperand().getType() instanceof PsiClassType mainClassType) {
+            PsiClass resolvedMainClass = mainClassType.resolve();
+            if (resolvedMainClass != null) {
+                files.add(resolvedMainClass.getContainingFile());
+            }
+        }
+
+        BeanDependencyGraph beanDependencyGraph = BeanDependencyGraph.getInstance(project);
+        JavaPsiFacade javaPsiFacade = JavaPsiFacade.getInstance(project);
+        GlobalSearchScope scope = GlobalSearchScope.moduleWithDependenciesAndLibrariesScope(module);
+        for (PsiField field : testClass.getFields()) {
+            if (!field.hasAnnotation(AtomTestFrameworkService.DYNAMIC_RESOURCE)
+                || !(field.getType() instanceof PsiClassType fieldType)) {
+                continue;
+            }
+            PsiClass beanClass = fieldType.resolve();
+            if (beanClass == null) {
+                continue;
+            }
+            for (String bean : beanDependencyGraph.getReachableBeans(module, beanClass)) {
+                PsiClass reachableClass = javaPsiFacade.findClass(bean, scope);
+                if (reachableClass != null) {
+                    files.add(reachableClass.getContainingFile());
+                }
+            }
+        }
+
+        Set<String> jars = new HashSet<>();
+        for (PsiFile file : files) {
+            if (file == null) {
+                continue;
+            }
+            file.accept(new JavaRecursiveElementWalkingVisitor() {
+                @Override
+                public void visitReferenceElement(@NotNull PsiJavaCodeReferenceElement reference) {
+                    super.visitReferenceElement(reference);
+                    if (reference.resolve() instanceof PsiClass referencedClass) {
+                        addJar(jars, referencedClass);
+                        for (PsiClass superClass : referencedClass.getSupers()) {
+                            addJar(jars, superClass);
+                        }
+                    }
+                }
+            });
+        }
+        return jars;
+    }
+
+    private static void addJar(Set<String> jars, PsiClass psiClass) {
+        PsiFile file = psiClass.getContainingFile();
+        VirtualFile virtualFile = file == null ? null : file.getVirtualFile();
+        VirtualFile jar = virtualFile == null ? null : VfsUtilCore.getVirtualFileForJar(virtualFile);
+        if (jar != null) {
+            jars.add(jar.getPath());
+        }
+    }
+
+    private JarIndex buildJarIndex(Module module) {
+        List<String> jars = new ArrayList<>();
+        Map<String, String> jarsByCoordinate = new HashMap<>();
+        Map<String, Set<String>> dependencies = new HashMap<>();
+        Map<String, Set<String>> optionalDependencies = new HashMap<>();
+        Set<String> autoConfigurationJars = new HashSet<>();
+        List<VirtualFile> autoConfigurationRoots = new ArrayList<>();
+        Set<String> alwaysKept = new HashSet<>();
+        for (VirtualFile root : OrderEnumerator.orderEntries(module).withoutSdk().recursively().librariesOnly()
+            .classes().getRoots()) {
+            VirtualFile jar = VfsUtilCore.getVirtualFileForJar(root);
+            if (jar == null || root.getFileSystem() != JarFileSystem.getInstance()) {
+                continue;
+            }
+            String jarPath = jar.getPath();
+            jars.add(jarPath);
+
+            // 自动配置的 jar 决定上下文的行为；通过 ServiceLoader 发现的实现（如 JDBC 驱动）源码中不会引用，
+            // 没有 Maven 元数据的 jar 无法判断依赖，均保留
+            for (String autoConfigurationFile : AUTO_CONFIGURATION_FILES) {
+                if (root.findFileByRelativePath(autoConfigurationFile) != null && autoConfigurationJars.add(jarPath)) {
+                    alwaysKept.add(jarPath);
+                    autoConfigurationRoots.add(root);
+                }
+            }
+            VirtualFile servicesDirectory = root.findFileByRelativePath(SERVICES_DIRECTORY);
+            if (servicesDirectory != null && servicesDirectory.getChildren().length > 0) {
+                alwaysKept.add(jarPath);
+            }
+            VirtualFile mavenDirectory = root.findFileByRelativePath("META-INF/maven");
+            if (mavenDirectory == null) {
+                alwaysKept.add(jarPath);
+                continue;
+            }
+            for (VirtualFile groupDirectory : mavenDirectory.getChildren()) {
+                for (VirtualFile artifactDirectory : groupDirectory.getChildren()) {
+                    jarsByCoordinate.putIfAbsent(
+                        groupDirectory.getName() + ":" + artifactDirectory.getName(), jarPath
+                    );
+                    VirtualFile pom = artifactDirectory.findChild("pom.xml");
+                    if (pom != null) {
+                        readDependencies(
+                            pom,
+                            groupDirectory.getName(),
+                            dependencies.computeIfAbsent(jarPath, key -> new HashSet<>()),
+                            optionalDependencies.computeIfAbsent(jarPath, key -> new HashSet<>())
+                        );
+                    }
+                }
+            }
+        }
+        alwaysKept.addAll(findConditionalJars(module, autoConfigurationRoots));
+        return new JarIndex(jars, jarsByCoordinate, dependencies, optionalDependencies, autoConfigurationJars, alwaysKept);
+    }
+
+    /**
+     * 自动配置 jar 中 ConditionalOnClass 引用的类所在的 jar，这些 jar 不会出现 ClassNotFoundException，
+     * 缺少时只会静默地少启用一些自动配置，需在读操作中调用
+     */
+    private Set<String> findConditionalJars(Module module, List<VirtualFile> autoConfigurationRoots) {
+        Set<String> jars = new HashSet<>();
+        JavaPsiFacade javaPsiFacade = JavaPsiFacade.getInstance(project);
+        GlobalSearchScope scope = GlobalSearchScope.moduleWithDependenciesAndLibrariesScope(module, true);
+        PsiClass conditionalOnClass = javaPsiFacade.findClass(CONDITIONAL_ON_CLASS, scope);
+        if (conditionalOnClass == null) {
+            return jars;
+        }
+        for (VirtualFile root : autoConfigurationRoots) {
+            for (PsiModifierListOwner owner : AnnotatedElementsSearch.searchElements(
+                conditionalOnClass, GlobalSearchScopesCore.directoryScope(project, root, true),
+                PsiClass.class, PsiMethod.class
+            ).findAll()) {
+                PsiAnnotation annotation = owner.getAnnotation(CONDITIONAL_ON_CLASS);
+                if (annotation == null) {
+                    continue;
+                }
+                for (PsiAnnotationMemberValue value
+                    : AnnotationUtil.arrayAttributeValues(annotation.findDeclaredAttributeValue("value"))) {
+                    if (value instanceof PsiClassObjectAccessExpression classAccess
+                        && classAccess.getOperand().getType() instanceof PsiClassType classType) {
+                        PsiClass conditionClass = classType.resolve();
+                        if (conditionClass != null) {
+                            addJar(jars, conditionClass);
+                        }
+                    }
+                }
+                for (PsiAnnotationMemberValue value
+                    : AnnotationUtil.arrayAttributeValues(annotation.findDeclaredAttributeValue("name"))) {
+                    PsiClass conditionClass = value instanceof PsiLiteralExpression literal
+                        && literal.getValue() instanceof String className
+                        ? javaPsiFacade.findClass(className, scope)
+                        : null;
+                    if (conditionClass != null) {
+                        addJar(jars, conditionClass);
+                    }
+                }
+            }
+        }
+        return jars;
+    }
+
+    /**
+     * 读取 pom 中运行时需要的依赖坐标，可选依赖单独放入 optional
+     */
+    private static void readDependencies(VirtualFile pom, String ownGroupId, Set<String> required, Set<String> optional) {
+        try (InputStream inputStream = pom.getInputStream()) {
+            Element project = JDOMUtil.load(inputStream);
+            Element dependenciesElement = project.getChild("dependencies", project.getNamespace());
+            if (dependenciesElement == null) {
+                return;
+            }
+            for (Element dependency : dependenciesElement.getChildren("dependency", project.getNamespace())) {
+                String groupId = dependency.getChildTextTrim("groupId", project.getNamespace());
+                String artifactId = dependency.getChildTextTrim("artifactId", project.getNamespace());
+                String scope = dependency.getChildTextTrim("scope", project.getNamespace());
+                if (artifactId == null || scope != null && SKIPPED_SCOPES.contains(scope)) {
+                    continue;
+                }
+                if (groupId == null || groupId.startsWith("${")) {
+                    groupId = ownGroupId;
+                }
+                boolean isOptional = "true".equals(dependency.getChildTextTrim("optional", project.getNamespace()));
+                (isOptional ? optional : required).add(groupId + ":" + artifactId);
+            }
+        } catch (IOException | JDOMException e) {
+            // 无法解析的 pom 视为没有依赖
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.LangDataKeys;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.ComboBox;
+import com.intellij.openapi.ui.DialogBuilder;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.ui.components.JBCheckBox;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBTextField;
+import com.intellij.uiDesigner.core.GridConstraints;
+import com.intellij.uiDesigner.core.GridLayoutManager;
+import com.intellij.util.ui.JBUI;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.util.Map;
+
+/**
+ * 编辑当前模块的快速启动配置，并展示各配置已测得的首次调用耗时
+ */
+public class ConfigureLaunchProfileAction extends AnAction {
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        Module module = e.getData(LangDataKeys.MODULE);
+        if (project == null || module == null) {
+            return;
+        }
+
+        FastTestSettings settings = FastTestSettings.getInstance(project);
+        LaunchProfile profile = settings.getLaunchProfile(module.getName());
+
+        JBCheckBox tieredBox = new JBCheckBox("仅使用 C1 编译（-XX:TieredStopAtLevel=1）", profile.tieredStopAtLevel1);
+        ComboBox<String> gcBox = new ComboBox<>(LaunchProfile.GC_OPTIONS);
+        gcBox.setSelectedItem(profile.gc);
+        JBTextField heapField = new JBTextField(profile.heap);
+        JBCheckBox verifyBox = new JBCheckBox("跳过字节码校验（-XX:-BytecodeVerificationRemote）", profile.skipVerification);
+        JBCheckBox lazyBox = new JBCheckBox("Bean 懒加载（spring.main.lazy-initialization）", profile.lazyInitialization);
+
+        StringBuilder timingText = new StringBuilder("<html>");
+        Map<String, LaunchProfiles.Timing> timings = LaunchProfiles.getInstance(project).getTimings(module.getName());
+        if (timings.isEmpty()) {
+            timingText.append("尚无首次调用耗时记录");
+        }
+        timings.forEach((key, timing) -> timingText.append(StringUtil.escapeXmlEntities(key))
+            .append("：").append(timing.summary()).append("<br/>"));
+        timingText.append("</html>");
+
+        JPanel panel = new JPanel(new GridLayoutManager(6, 2, JBUI.insets(10), -1, -1));
+        addRow(panel, 0, null, tieredBox);
+        addRow(panel, 1, "GC:", gcBox);
+        addRow(panel, 2, "堆大小（如 512m）:", heapField);
+        addRow(panel, 3, null, verifyBox);
+        addRow(panel, 4, null, lazyBox);
+        addRow(panel, 5, null, new JBLabel(timingText.toString()));
+
+        DialogBuilder dialogBuilder = new DialogBuilder(project);
+        dialogBuilder.setTitle("Fast Launch Profile: " + module.getName());
+        dialogBuilder.setCenterPanel(panel);
+        dialogBuilder.addOkAction();
+        dialogBuilder.addCancelAction();
+        if (dialogBuilder.show() != DialogWrapper.OK_EXIT_CODE) {
+            return;
+        }
+
+        LaunchProfile updated = new LaunchProfile();
+        updated.tieredStopAtLevel1 = tieredBox.isSelected();
+        updated.gc = StringUtil.notNullize((String) gcBox.getSelectedItem());
+        updated.heap = heapField.getText().trim();
+        updated.skipVerification = verifyBox.isSelected();
+        updated.lazyInitialization = lazyBox.isSelected();
+        settings.setLaunchProfile(module.getName(), updated);
+    }
+
+    private void addRow(JPanel panel, int row, @Nullable String label, JComponent component) {
+        if (label != null) {
+            panel.add(new JBLabel(label), new GridConstraints(
+                row, 0, 1, 1, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_NONE,
+                GridConstraints.SIZEPOLICY_FIXED, GridConstraints.SIZEPOLICY_FIXED, null, null, null
+            ));
+        }
+        panel.add(component, new GridConstraints(
+            row, label == null ? 0 : 1, 1, label == null ? 2 : 1, GridConstraints.ANCHOR_WEST,
+            GridConstraints.FILL_HORIZONTAL, GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_FIXED,
+            null, null, null
+        ));
+    }
+}
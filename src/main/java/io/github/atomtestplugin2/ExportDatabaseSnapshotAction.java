@@ -0,0 +1,37 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.LangDataKeys;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * 按上次导出时的属性文件重新导出数据库快照，覆盖 src/test/resources/db-snapshot
+ */
+public class ExportDatabaseSnapshotAction extends RunJUnitTestAction {
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        Module module = e.getData(LangDataKeys.MODULE);
+        if (project == null || module == null) {
+            return;
+        }
+
+        List<String> sources = InMemoryDatabase.getInstance(project).getSnapshotSources(module);
+        if (sources == null) {
+            Messages.showMessageDialog(
+                project,
+                "当前模块还没有数据库快照，请在创建测试类时勾选使用 H2 内存数据库",
+                "Error",
+                Messages.getErrorIcon()
+            );
+            return;
+        }
+        exportDatabaseSnapshot(project, module, sources, null);
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiClass;
+
+/**
+ * 以普通 Run 方式启动生成的测试，不附加调试器也不设置断点，用于计时敏感的方法
+ */
+public class FastRunJUnitTestAction extends RunJUnitTestAction {
+
+    @Override
+    protected LaunchMode getLaunchMode(Project project, PsiClass testClass) {
+        return LaunchMode.RUN;
+    }
+
+    @Override
+    protected boolean isLaunchModeSelectable() {
+        return false;
+    }
+}
@@ -0,0 +1,122 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.openapi.components.*;
+import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 插件的用户选项（含按测试类记录的选项），保存在工作区文件中
+ */
+@Service(Service.Level.PROJECT)
+@State(name = "AtomTestSettings", storages = @Storage(StoragePathMacros.WORKSPACE_FILE))
+public final class FastTestSettings implements PersistentStateComponent<FastTestSettings.State> {
+
+    private State state = new State();
+
+    public static FastTestSettings getInstance(Project project) {
+        return project.getService(FastTestSettings.class);
+    }
+
+    @Override
+    public @NotNull State getState() {
+        return state;
+    }
+
+    @Override
+    public void loadState(@NotNull State state) {
+        this.state = state;
+    }
+
+    public LaunchMode getLaunchMode(String testClassName) {
+        String mode = state.launchModes.get(testClassName);
+        return LaunchMode.RUN.name().equals(mode) ? LaunchMode.RUN : LaunchMode.DEBUG;
+    }
+
+    public void setLaunchMode(String testClassName, LaunchMode launchMode) {
+        state.launchModes.put(testClassName, launchMode.name());
+    }
+
+    public boolean isStartupProfiling() {
+        return state.startupProfiling;
+    }
+
+    public void setStartupProfiling(boolean startupProfiling) {
+        state.startupProfiling = startupProfiling;
+    }
+
+    public boolean isAppCds() {
+        return state.appCds;
+    }
+
+    public void setAppCds(boolean appCds) {
+        state.appCds = appCds;
+    }
+
+    public boolean isTrimClasspath() {
+        return state.trimClasspath;
+    }
+
+    public void setTrimClasspath(boolean trimClasspath) {
+        state.trimClasspath = trimClasspath;
+    }
+
+    public int getPlaceholderDepth() {
+        return state.placeholderDepth;
+    }
+
+    public void setPlaceholderDepth(int placeholderDepth) {
+        state.placeholderDepth = placeholderDepth;
+    }
+
+    public int getRegressionThreshold() {
+        return state.regressionThreshold;
+    }
+
+    public void setRegressionThreshold(int regressionThreshold) {
+        state.regressionThreshold = regressionThreshold;
+    }
+
+    public boolean isRemoteStubs(String testClassName) {
+        return state.remoteStubs.contains(testClassName);
+    }
+
+    public void setRemoteStubs(String testClassName, boolean remoteStubs) {
+        if (remoteStubs) {
+            state.remoteStubs.add(testClassName);
+        } else {
+            state.remoteStubs.remove(testClassName);
+        }
+    }
+
+    public LaunchProfile getLaunchProfile(String moduleName) {
+        return state.launchProfiles.getOrDefault(moduleName, new LaunchProfile());
+    }
+
+    public void setLaunchProfile(String moduleName, LaunchProfile launchProfile) {
+        state.launchProfiles.put(moduleName, launchProfile);
+    }
+
+    public static class State {
+
+        public Map<String, String> launchModes = new HashMap<>();
+
+        public boolean startupProfiling;
+
+        public boolean appCds;
+
+        public boolean trimClasspath;
+
+        public int placeholderDepth = PlaceholderJson.DEFAULT_MAX_DEPTH;
+
+        public Map<String, LaunchProfile> launchProfiles = new HashMap<>();
+
+        public Set<String> remoteStubs = new HashSet<>();
+
+        public int regressionThreshold = RunHistory.DEFAULT_REGRESSION_THRESHOLD;
+    }
+}
@@ -0,0 +1,212 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.execution.RunnerAndConfigurationSettings;
+import com.intellij.execution.junit.JUnitConfiguration;
+import com.intellij.execution.runners.ProgramRunner;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.application.WriteAction;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiAnnotation;
+import com.intellij.psi.PsiAnnotationMemberValue;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.search.GlobalSearchScope;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * H2 内存数据源：测试属性中追加覆盖数据源的属性文件，测试 JVM 启动时由生成的 initializer 按
+ * src/test/resources/db-snapshot 中一次性导出的 schema.sql 与 data.sql 初始化内存库
+ */
+@Service(Service.Level.PROJECT)
+public final class InMemoryDatabase {
+
+    public static final String SNAPSHOT_DIRECTORY = "db-snapshot";
+
+    public static final String OVERRIDE_FILE = "atom-test-h2.properties";
+
+    public static final String EXPORTER_CLASS = SupportSources.PACKAGE + ".AtomTestDatabaseExporter";
+
+    private static final String SOURCES_FILE = ".sources";
+
+    private static final String URL =
+        "jdbc:h2:mem:atomtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1";
+
+    /**
+     * 导出类从该环境变量读取数据库密码
+     */
+    private static final String PASSWORD_ENV = "ATOM_TEST_EXPORT_PASSWORD";
+
+    private static final String URL_OPTION = "-Datom.test.h2.url=";
+
+    private static final String DATABASE_SIMPLE_NAME = "AtomTestInMemoryDatabase";
+
+    private static final String DATABASE_CLASS = SupportSources.PACKAGE + "." + DATABASE_SIMPLE_NAME;
+
+    private final Project project;
+
+    public InMemoryDatabase(Project project) {
+        this.project = project;
+    }
+
+    public static InMemoryDatabase getInstance(Project project) {
+        return project.getService(InMemoryDatabase.class);
+    }
+
+    /**
+     * 导出类的 VM 参数与环境变量
+     */
+    public record ExportLaunch(List<String> vmParameters, Map<String, String> environment) {
+    }
+
+    /**
+     * 测试类的属性文件包含数据源覆盖文件时为配置加上初始化内存库的 initializer，否则清除相关参数
+     */
+    public @Nullable ProgramRunner.Callback customize(RunnerAndConfigurationSettings settings,
+                                                      @Nullable ProgramRunner.Callback callback) {
+        if (!(settings.getConfiguration() instanceof JUnitConfiguration configuration)) {
+            return callback;
+        }
+        String vmParameters = VmParameters.initializer(configuration.getVMParameters(), DATABASE_CLASS, false);
+        vmParameters = VmParameters.replace(vmParameters, URL_OPTION, null);
+        configuration.setVMParameters(vmParameters);
+
+        Module module = configuration.getConfigurationModule().getModule();
+        String testClassName = configuration.getPersistentData().getMainClassName();
+        if (module == null
+            || testClassName == null
+            || !ReadAction.compute(() -> usesInMemoryDatabase(module, testClassName))
+            || !SupportSources.ensure(project, module, DATABASE_SIMPLE_NAME)) {
+            return callback;
+        }
+        vmParameters = VmParameters.initializer(vmParameters, DATABASE_CLASS, true);
+        configuration.setVMParameters(VmParameters.replace(vmParameters, URL_OPTION, URL_OPTION + URL));
+        return callback;
+    }
+
+    private boolean usesInMemoryDatabase(Module module, String testClassName) {
+        PsiClass testClass = JavaPsiFacade.getInstance(project).findClass(
+            testClassName, GlobalSearchScope.moduleWithDependenciesAndLibrariesScope(module, true)
+        );
+        PsiAnnotation dynamicBeanLoading = testClass == null
+            ? null
+            : testClass.getAnnotation(AtomTestFrameworkService.DYNAMIC_BEAN_LOADING);
+        PsiAnnotationMemberValue properties = dynamicBeanLoading == null
+            ? null
+            : dynamicBeanLoading.findAttributeValue("properties");
+        return properties != null && properties.getText().contains(OVERRIDE_FILE);
+    }
+
+    public boolean isH2Available(Module module) {
+        return JavaPsiFacade.getInstance(project).findClass(
+            "org.h2.Driver", GlobalSearchScope.moduleWithDependenciesAndLibrariesScope(module, true)
+        ) != null;
+    }
+
+    public boolean hasSnapshot(Module module) {
+        VirtualFile resourcesRoot = AtomTestFrameworkService.getInstance(project).findTestRoot(module, "resources");
+        return resourcesRoot != null && resourcesRoot.findFileByRelativePath(SNAPSHOT_DIRECTORY + "/schema.sql") != null;
+    }
+
+    /**
+     * 在 src/test/resources 中写入覆盖数据源的属性文件，已存在时保留用户的修改
+     */
+    public void writeOverride(Module module) throws IOException {
+        VirtualFile resourcesRoot = getResourcesRoot(module);
+        if (resourcesRoot.findChild(OVERRIDE_FILE) != null) {
+            return;
+        }
+        String text = "# Generated by Atom Test: in-memory H2 datasource seeded from " + SNAPSHOT_DIRECTORY + "\n"
+            + "spring.datasource.url=" + URL + "\n"
+            + "spring.datasource.driver-class-name=org.h2.Driver\n"
+            + "spring.datasource.username=sa\n"
+            + "spring.datasource.password=\n"
+            + "spring.datasource.druid.url=" + URL + "\n"
+            + "spring.datasource.druid.driver-class-name=org.h2.Driver\n"
+            + "spring.datasource.druid.username=sa\n"
+            + "spring.datasource.druid.password=\n"
+            + "spring.sql.init.mode=never\n"
+            + "spring.jpa.hibernate.ddl-auto=none\n";
+        WriteAction.runAndWait(() -> VfsUtil.saveText(resourcesRoot.findOrCreateChildData(this, OVERRIDE_FILE), text));
+    }
+
+    /**
+     * 按属性文件中的 spring.datasource 配置生成导出快照的 VM 参数，密码放在环境变量中，并记住属性文件以便重新导出
+     */
+    public ExportLaunch getExportLaunch(Module module, List<String> propertyFiles, int rows) throws IOException {
+        VirtualFile resourcesRoot = getResourcesRoot(module);
+        Map<String, String> settings = PropertyFiles.read(resourcesRoot, propertyFiles);
+        String url = firstNonEmpty(
+            PropertyFiles.get(settings, "spring.datasource.url"),
+            PropertyFiles.get(settings, "spring.datasource.druid.url")
+        );
+        if (url == null || url.contains("${")) {
+            throw new IOException("未在属性文件中找到可直接使用的 spring.datasource.url");
+        }
+        String username = firstNonEmpty(
+            PropertyFiles.get(settings, "spring.datasource.username"),
+            PropertyFiles.get(settings, "spring.datasource.druid.username")
+        );
+        String password = firstNonEmpty(
+            PropertyFiles.get(settings, "spring.datasource.password"),
+            PropertyFiles.get(settings, "spring.datasource.druid.password")
+        );
+
+        List<String> sources = new ArrayList<>();
+        for (String propertyFile : propertyFiles) {
+            sources.add(propertyFile.trim());
+        }
+        WriteAction.runAndWait(() -> {
+            VirtualFile directory = VfsUtil.createDirectoryIfMissing(resourcesRoot, SNAPSHOT_DIRECTORY);
+            VfsUtil.saveText(directory.findOrCreateChildData(this, SOURCES_FILE), String.join("\n", sources));
+        });
+
+        List<String> parameters = new ArrayList<>();
+        parameters.add("-Datom.test.export.url=" + url);
+        parameters.add("-Datom.test.export.username=" + StringUtil.notNullize(username));
+        parameters.add("-Datom.test.export.output=" + resourcesRoot.getPath() + "/" + SNAPSHOT_DIRECTORY);
+        parameters.add("-Datom.test.export.rows=" + rows);
+        return new ExportLaunch(parameters, Map.of(PASSWORD_ENV, StringUtil.notNullize(password)));
+    }
+
+    /**
+     * 上次导出快照时使用的属性文件，用于重新导出
+     */
+    public @Nullable List<String> getSnapshotSources(Module module) {
+        VirtualFile resourcesRoot = AtomTestFrameworkService.getInstance(project).findTestRoot(module, "resources");
+        VirtualFile sources = resourcesRoot == null
+            ? null
+            : resourcesRoot.findFileByRelativePath(SNAPSHOT_DIRECTORY + "/" + SOURCES_FILE);
+        if (sources == null) {
+            return null;
+        }
+        try {
+            return StringUtil.split(VfsUtil.loadText(sources), "\n");
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private VirtualFile getResourcesRoot(Module module) throws IOException {
+        VirtualFile resourcesRoot = ReadAction.compute(
+            () -> AtomTestFrameworkService.getInstance(project).findTestRoot(module, "resources")
+        );
+        if (resourcesRoot == null) {
+            throw new IOException("模块缺少 src/test/resources 目录");
+        }
+        return resourcesRoot;
+    }
+
+    private static @Nullable String firstNonEmpty(@Nullable String first, @Nullable String second) {
+        return first != null ? first : second;
+    }
+}
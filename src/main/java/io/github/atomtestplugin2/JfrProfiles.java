@@ -0,0 +1,229 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowManager;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 解析常驻 JVM 中 Profile 调用生成的 JFR 文件：只取发起调用的线程的 CPU 采样，
+ * 调用栈从被测方法的帧开始截取，汇总为调用树与自身耗时最多的方法
+ */
+@Service(Service.Level.PROJECT)
+public final class JfrProfiles {
+
+    private static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+
+    private static final int TOP_METHODS = 50;
+
+    private final Project project;
+
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile @Nullable Profile lastProfile;
+
+    public JfrProfiles(Project project) {
+        this.project = project;
+    }
+
+    public static JfrProfiles getInstance(Project project) {
+        return project.getService(JfrProfiles.class);
+    }
+
+    public record Profile(String method, int rounds, long totalNanos, Node root, List<HotMethod> hotMethods) {
+    }
+
+    /**
+     * 栈帧所在类为 JVM 类名（内部类以 $ 分隔），行号未知时为 -1
+     */
+    public record HotMethod(String className, String methodName, int lineNumber, int selfSamples, int totalSamples) {
+    }
+
+    /**
+     * 调用树节点，samples 为经过该节点的采样数
+     */
+    public static final class Node {
+
+        private final String className;
+
+        private final String methodName;
+
+        private final Map<String, Node> children = new LinkedHashMap<>();
+
+        private int samples;
+
+        private int lineNumber = -1;
+
+        Node(String className, String methodName) {
+            this.className = className;
+            this.methodName = methodName;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public String getMethodName() {
+            return methodName;
+        }
+
+        public Collection<Node> getChildren() {
+            return children.values();
+        }
+
+        public int getSamples() {
+            return samples;
+        }
+
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        public String getLabel() {
+            return className.substring(className.lastIndexOf('.') + 1) + "." + methodName;
+        }
+    }
+
+    public @Nullable Profile getLastProfile() {
+        return lastProfile;
+    }
+
+    /**
+     * 监听器随 parentDisposable 一起移除
+     */
+    public void addListener(Runnable listener, Disposable parentDisposable) {
+        listeners.add(listener);
+        Disposer.register(parentDisposable, () -> listeners.remove(listener));
+    }
+
+    /**
+     * 解析后删除 JFR 文件，需在后台线程调用
+     */
+    public void load(String targetClassName,
+                     String methodName,
+                     Path recording,
+                     long threadId,
+                     int rounds,
+                     long totalNanos) {
+        Node root = new Node(targetClassName, methodName);
+        Map<String, int[]> selfSamples = new HashMap<>();
+        Map<String, int[]> totalSamples = new HashMap<>();
+        Map<String, Map<Integer, Integer>> leafLines = new HashMap<>();
+        try {
+            for (RecordedEvent event : RecordingFile.readAllEvents(recording)) {
+                if (!EXECUTION_SAMPLE.equals(event.getEventType().getName())) {
+                    continue;
+                }
+                RecordedThread thread = event.getThread("sampledThread");
+                RecordedStackTrace stackTrace = event.getStackTrace();
+                if (thread == null || thread.getJavaThreadId() != threadId || stackTrace == null) {
+                    continue;
+                }
+                List<RecordedFrame> frames = new ArrayList<>(stackTrace.getFrames());
+                frames.removeIf(frame -> !frame.isJavaFrame());
+                if (frames.isEmpty()) {
+                    continue;
+                }
+                Collections.reverse(frames);
+
+                // 从最外层的被测方法帧开始，之前的反射与测试框架帧不展示；栈被截断时保留全部帧
+                int start = 0;
+                for (int i = 0; i < frames.size(); i++) {
+                    if (isTarget(frames.get(i), targetClassName, methodName)) {
+                        start = i + 1;
+                        break;
+                    }
+                }
+                root.samples++;
+                Node node = root;
+                Set<String> seen = new HashSet<>();
+                for (RecordedFrame frame : frames.subList(start, frames.size())) {
+                    String key = getKey(frame);
+                    node = node.children.computeIfAbsent(
+                        key, ignored -> new Node(frame.getMethod().getType().getName(), frame.getMethod().getName())
+                    );
+                    node.samples++;
+                    if (node.lineNumber < 0) {
+                        node.lineNumber = frame.getLineNumber();
+                    }
+                    if (seen.add(key)) {
+                        totalSamples.computeIfAbsent(key, ignored -> new int[1])[0]++;
+                    }
+                }
+                RecordedFrame leaf = frames.get(frames.size() - 1);
+                String leafKey = getKey(leaf);
+                selfSamples.computeIfAbsent(leafKey, ignored -> new int[1])[0]++;
+                leafLines.computeIfAbsent(leafKey, ignored -> new HashMap<>())
+                    .merge(leaf.getLineNumber(), 1, Integer::sum);
+            }
+        } catch (IOException e) {
+            TestDaemonManager.getInstance(project).notify("读取 JFR 记录失败：" + e.getMessage(), NotificationType.ERROR);
+            return;
+        } finally {
+            try {
+                Files.deleteIfExists(recording);
+            } catch (IOException ignored) {
+                // 临时文件删除失败不影响结果
+            }
+        }
+        if (root.samples == 0) {
+            TestDaemonManager.getInstance(project).notify(
+                methodName + " 执行时间过短，没有采集到 CPU 样本，请增加调用次数", NotificationType.WARNING
+            );
+            return;
+        }
+
+        List<HotMethod> hotMethods = new ArrayList<>();
+        selfSamples.forEach((key, self) -> {
+            int separator = key.lastIndexOf('#');
+            int lineNumber = leafLines.get(key).entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse(-1);
+            hotMethods.add(new HotMethod(
+                key.substring(0, separator),
+                key.substring(separator + 1),
+                lineNumber,
+                self[0],
+                totalSamples.getOrDefault(key, self)[0]
+            ));
+        });
+        hotMethods.sort(Comparator.comparingInt(HotMethod::selfSamples).reversed());
+
+        lastProfile = new Profile(
+            methodName, rounds, totalNanos, root, hotMethods.subList(0, Math.min(TOP_METHODS, hotMethods.size()))
+        );
+        ApplicationManager.getApplication().invokeLater(() -> {
+            listeners.forEach(Runnable::run);
+            ToolWindow toolWindow = ToolWindowManager.getInstance(project).getToolWindow(AtomTestToolWindowFactory.ID);
+            if (toolWindow != null) {
+                toolWindow.show();
+            }
+        }, project.getDisposed());
+    }
+
+    private static boolean isTarget(RecordedFrame frame, String targetClassName, String methodName) {
+        return frame.getMethod().getName().equals(methodName)
+            && frame.getMethod().getType().getName().equals(targetClassName);
+    }
+
+    private static String getKey(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "#" + frame.getMethod().getName();
+    }
+}
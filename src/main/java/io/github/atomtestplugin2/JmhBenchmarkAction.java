@@ -0,0 +1,197 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.execution.RunManager;
+import com.intellij.execution.RunnerAndConfigurationSettings;
+import com.intellij.execution.application.ApplicationConfiguration;
+import com.intellij.execution.application.ApplicationConfigurationType;
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.util.Computable;
+import com.intellij.psi.*;
+import com.intellij.psi.codeStyle.CodeStyleManager;
+import com.intellij.psi.codeStyle.JavaCodeStyleManager;
+import com.intellij.psi.search.GlobalSearchScope;
+
+import javax.swing.text.JTextComponent;
+import java.util.List;
+
+/**
+ * 为选中方法生成 JMH 基准测试类：在 Setup(Level.Trial) 中复用测试类的 DynamicBeanLoading 上下文获取 Bean，
+ * 并通过生成的 Application 运行配置在 fork 出的 JVM 中运行
+ */
+public class JmhBenchmarkAction extends RunJUnitTestAction {
+
+    private static final String CAPTURE_METHOD_NAME = "fastTestCaptureBean";
+
+    private static final String CAPTURE_FIELD_NAME = "capturedBean";
+
+    @Override
+    protected void onTestClassReady(PsiMethod method,
+                                    Project project,
+                                    PsiClass testClass,
+                                    PsiClass containingClass,
+                                    Module module) {
+        // 缺少注解处理器时能编译但不会生成 BenchmarkList，运行时才报错
+        GlobalSearchScope scope = GlobalSearchScope.moduleWithDependenciesAndLibrariesScope(module, true);
+        JavaPsiFacade javaPsiFacade = JavaPsiFacade.getInstance(project);
+        if (javaPsiFacade.findClass("org.openjdk.jmh.annotations.Benchmark", scope) == null
+            || javaPsiFacade.findClass("org.openjdk.jmh.generators.BenchmarkProcessor", scope) == null) {
+            Messages.showMessageDialog(
+                project,
+                "尚未引入JMH依赖，请引入以下依赖后继续操作：\n<dependency>\n"
+                    + "            <groupId>org.openjdk.jmh</groupId>\n"
+                    + "            <artifactId>jmh-core</artifactId>\n"
+                    + "            <version>1.37</version>\n"
+                    + "            <scope>test</scope>\n"
+                    + "        </dependency>\n<dependency>\n"
+                    + "            <groupId>org.openjdk.jmh</groupId>\n"
+                    + "            <artifactId>jmh-generator-annprocess</artifactId>\n"
+                    + "            <version>1.37</version>\n"
+                    + "            <scope>test</scope>\n"
+                    + "        </dependency>\n"
+                    + "jmh-generator-annprocess 以注解处理器生成基准代码，请确认 IDE 的 Build 设置中已启用注解处理"
+                    + "（Settings | Build, Execution, Deployment | Compiler | Annotation Processors）",
+                "Error",
+                Messages.getErrorIcon()
+            );
+            return;
+        }
+
+        String benchmarkClassName = containingClass.getName() + capitalize(method.getName()) + "Benchmark";
+        PsiDirectory directory = testClass.getContainingFile().getContainingDirectory();
+        PsiFile existFile = directory.findFile(benchmarkClassName + ".java");
+        PsiClass benchmarkClass = existFile instanceof PsiJavaFile javaFile && javaFile.getClasses().length > 0
+            ? javaFile.getClasses()[0]
+            : null;
+
+        if (benchmarkClass == null) {
+            List<JTextComponent> paramTextFieldList = showParameterDialog(method, project);
+            if (paramTextFieldList == null) {
+                return;
+            }
+            benchmarkClass = createBenchmarkClass(
+                project, directory, benchmarkClassName, testClass, containingClass, method, paramTextFieldList
+            );
+            if (benchmarkClass == null) {
+                Messages.showMessageDialog(project, "创建JMH基准测试类失败", "Error", Messages.getErrorIcon());
+                return;
+            }
+        }
+
+        RunManager runManager = RunManager.getInstance(project);
+        RunnerAndConfigurationSettings configurationSettings = runManager.createConfiguration(
+            benchmarkClassName, ApplicationConfigurationType.getInstance().getConfigurationFactories()[0]
+        );
+        ApplicationConfiguration configuration = (ApplicationConfiguration) configurationSettings.getConfiguration();
+        configuration.setMainClass(benchmarkClass);
+        configuration.setModule(module);
+        runConfiguration(configurationSettings, project, LaunchMode.RUN, null);
+    }
+
+    private PsiClass createBenchmarkClass(Project project,
+                                          PsiDirectory directory,
+                                          String benchmarkClassName,
+                                          PsiClass testClass,
+                                          PsiClass containingClass,
+                                          PsiMethod method,
+                                          List<JTextComponent> paramTextFieldList) {
+        String beanType = containingClass.getQualifiedName();
+        String beanField = toLowerCaseFirstLetter(containingClass.getName());
+        String testClassName = testClass.getQualifiedName();
+        PsiParameter[] parameters = method.getParameterList().getParameters();
+
+        return WriteCommandAction.runWriteCommandAction(
+            project, (Computable<PsiClass>) () -> {
+                ensureCaptureMethod(project, testClass, beanType, beanField);
+
+                PsiJavaFile benchmarkFile = (PsiJavaFile) PsiFileFactory.getInstance(project).createFileFromText(
+                    benchmarkClassName + ".java", JavaFileType.INSTANCE, "class " + benchmarkClassName + " {}"
+                );
+                benchmarkFile = (PsiJavaFile) directory.add(benchmarkFile);
+
+                StringBuilder classText = new StringBuilder();
+                classText.append("@org.openjdk.jmh.annotations.State(org.openjdk.jmh.annotations.Scope.Benchmark)\n")
+                    .append("@org.openjdk.jmh.annotations.BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)\n")
+                    .append("@org.openjdk.jmh.annotations.OutputTimeUnit(java.util.concurrent.TimeUnit.MICROSECONDS)\n")
+                    .append("@org.openjdk.jmh.annotations.Warmup(iterations = 5, time = 1)\n")
+                    .append("@org.openjdk.jmh.annotations.Measurement(iterations = 5, time = 1)\n")
+                    .append("@org.openjdk.jmh.annotations.Fork(1)\n")
+                    .append("public class ").append(benchmarkClassName).append(" {\n")
+                    .append("private ").append(beanType).append(" ").append(beanField).append(";\n");
+                for (PsiParameter parameter : parameters) {
+                    classText.append("private ")
+                        .append(parameter.getType().getCanonicalText())
+                        .append(" ")
+                        .append(parameter.getName())
+                        .append(";\n");
+                }
+
+                // 通过 JUnit 运行测试类中的捕获方法，复用其 DynamicBeanLoading 上下文
+                classText.append("@org.openjdk.jmh.annotations.Setup(org.openjdk.jmh.annotations.Level.Trial)\n")
+                    .append("public void setUp() throws Exception {\n")
+                    .append("org.junit.runner.Result result = new org.junit.runner.JUnitCore().run(")
+                    .append("org.junit.runner.Request.method(").append(testClassName).append(".class, \"")
+                    .append(CAPTURE_METHOD_NAME).append("\"));\n")
+                    .append("if (!result.wasSuccessful()) {\n")
+                    .append("throw new IllegalStateException(String.valueOf(result.getFailures()));\n")
+                    .append("}\n")
+                    .append(beanField).append(" = ").append(testClassName).append(".").append(CAPTURE_FIELD_NAME)
+                    .append(";\n");
+                classText.append(buildParameterStatements(benchmarkFile.getClasses()[0], method, paramTextFieldList));
+                for (PsiParameter parameter : parameters) {
+                    classText.append("this.").append(parameter.getName()).append(" = ")
+                        .append(parameter.getName()).append(";\n");
+                }
+                classText.append("}\n");
+
+                boolean returnsValue = !PsiTypes.voidType().equals(method.getReturnType());
+                classText.append("@org.openjdk.jmh.annotations.Benchmark\n")
+                    .append("public ").append(returnsValue ? "Object " : "void ").append(method.getName())
+                    .append("() throws Exception {\n")
+                    .append(returnsValue ? "return " : "")
+                    .append(beanField).append(".").append(method.getName()).append("(");
+                for (int i = 0; i < parameters.length; i++) {
+                    classText.append(i > 0 ? ", " : "").append(parameters[i].getName());
+                }
+                classText.append(");\n}\n");
+
+                classText.append("public static void main(String[] args) throws Exception {\n")
+                    .append("new org.openjdk.jmh.runner.Runner(new org.openjdk.jmh.runner.options.OptionsBuilder()")
+                    .append(".include(").append(benchmarkClassName).append(".class.getName() + \".")
+                    .append(method.getName()).append("\").build()).run();\n")
+                    .append("}\n")
+                    .append("}");
+
+                PsiClass placeholderClass = benchmarkFile.getClasses()[0];
+                PsiClass generatedClass = JavaPsiFacade.getElementFactory(project)
+                    .createClassFromText(classText.toString(), null)
+                    .getInnerClasses()[0];
+                PsiElement benchmarkClass = placeholderClass.replace(generatedClass);
+                JavaCodeStyleManager.getInstance(project).shortenClassReferences(benchmarkClass);
+                CodeStyleManager.getInstance(project).reformat(benchmarkClass);
+                return (PsiClass) benchmarkClass;
+            }
+        );
+    }
+
+    /**
+     * 在测试类中生成把注入的 Bean 暴露为静态字段的测试方法，供 JMH Setup 调用
+     */
+    private void ensureCaptureMethod(Project project, PsiClass testClass, String beanType, String beanField) {
+        if (testClass.findMethodsByName(CAPTURE_METHOD_NAME, false).length > 0) {
+            return;
+        }
+        PsiElementFactory elementFactory = JavaPsiFacade.getElementFactory(project);
+        testClass.add(elementFactory.createFieldFromText(
+            "public static " + beanType + " " + CAPTURE_FIELD_NAME + ";", testClass
+        ));
+        PsiElement captureMethod = testClass.add(elementFactory.createMethodFromText(
+            "@org.junit.Test\npublic void " + CAPTURE_METHOD_NAME + "() {\n"
+                + CAPTURE_FIELD_NAME + " = " + beanField + ";\n}", testClass
+        ));
+        CodeStyleManager.getInstance(project).reformat(captureMethod);
+    }
+}
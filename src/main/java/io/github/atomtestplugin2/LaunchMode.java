@@ -0,0 +1,21 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.execution.Executor;
+import com.intellij.execution.executors.DefaultDebugExecutor;
+import com.intellij.execution.executors.DefaultRunExecutor;
+
+/**
+ * 测试启动方式：Debug 会附加 JDWP 并在被测方法首行设置断点，Run 以普通方式启动，计时更接近生产环境
+ */
+public enum LaunchMode {
+
+    DEBUG,
+
+    RUN;
+
+    public Executor getExecutor() {
+        return this == DEBUG
+            ? DefaultDebugExecutor.getDebugExecutorInstance()
+            : DefaultRunExecutor.getRunExecutorInstance();
+    }
+}
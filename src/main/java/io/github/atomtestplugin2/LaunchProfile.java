@@ -0,0 +1,60 @@
+package io.github.atomtestplugin2;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 模块的快速启动配置：面向短生命周期测试 JVM 的启动参数，字段需保持 public 以便持久化
+ */
+public class LaunchProfile {
+
+    public static final String[] GC_OPTIONS = {"", "-XX:+UseSerialGC", "-XX:+UseParallelGC", "-XX:+UseG1GC"};
+
+    /**
+     * 只使用 C1 编译，减少启动阶段的编译开销
+     */
+    public boolean tieredStopAtLevel1;
+
+    public String gc = "";
+
+    /**
+     * 初始堆与最大堆，如 512m，为空时不设置
+     */
+    public String heap = "";
+
+    /**
+     * 跳过应用类的字节码校验，JDK 13 起 -Xverify:none 已废弃，使用等价的 BytecodeVerificationRemote
+     */
+    public boolean skipVerification;
+
+    public boolean lazyInitialization;
+
+    public List<String> toVmOptions() {
+        List<String> options = new ArrayList<>();
+        if (tieredStopAtLevel1) {
+            options.add("-XX:TieredStopAtLevel=1");
+        }
+        if (!gc.isEmpty()) {
+            options.add(gc);
+        }
+        if (!heap.isEmpty()) {
+            options.add("-Xms" + heap);
+            options.add("-Xmx" + heap);
+        }
+        if (skipVerification) {
+            options.add("-XX:-BytecodeVerificationRemote");
+        }
+        if (lazyInitialization) {
+            options.add("-Dspring.main.lazy-initialization=true");
+        }
+        return options;
+    }
+
+    /**
+     * 用于区分各配置测量结果的描述
+     */
+    public String describe() {
+        List<String> options = toVmOptions();
+        return options.isEmpty() ? "default" : String.join(" ", options);
+    }
+}
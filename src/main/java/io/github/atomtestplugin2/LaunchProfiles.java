@@ -0,0 +1,162 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.execution.RunnerAndConfigurationSettings;
+import com.intellij.execution.junit.JUnitConfiguration;
+import com.intellij.execution.process.ProcessEvent;
+import com.intellij.execution.process.ProcessHandler;
+import com.intellij.execution.process.ProcessListener;
+import com.intellij.execution.runners.ProgramRunner;
+import com.intellij.execution.testframework.AbstractTestProxy;
+import com.intellij.execution.testframework.sm.runner.SMTRunnerEventsAdapter;
+import com.intellij.execution.testframework.sm.runner.SMTRunnerEventsListener;
+import com.intellij.execution.testframework.sm.runner.SMTestProxy;
+import com.intellij.execution.ui.RunContentDescriptor;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import com.intellij.util.messages.MessageBusConnection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 按模块应用快速启动配置，并测量从进程启动到第一个测试方法完成的耗时，按配置汇总以便比较
+ */
+@Service(Service.Level.PROJECT)
+public final class LaunchProfiles {
+
+    /**
+     * 由快速启动配置维护的参数前缀，应用前先全部清除
+     */
+    private static final String[] MANAGED_PREFIXES = {
+        "-XX:TieredStopAtLevel=", "-XX:+UseSerialGC", "-XX:+UseParallelGC", "-XX:+UseG1GC", "-Xms", "-Xmx",
+        "-XX:-BytecodeVerificationRemote", "-Xverify", "-Dspring.main.lazy-initialization="
+    };
+
+    private final Project project;
+
+    /**
+     * 模块名 -> 配置描述 -> 首次调用耗时统计
+     */
+    private final Map<String, Map<String, Timing>> timings = new HashMap<>();
+
+    public LaunchProfiles(Project project) {
+        this.project = project;
+    }
+
+    public static LaunchProfiles getInstance(Project project) {
+        return project.getService(LaunchProfiles.class);
+    }
+
+    public static class Timing {
+
+        private int count;
+
+        private long totalMillis;
+
+        private long bestMillis = Long.MAX_VALUE;
+
+        void add(long millis) {
+            count++;
+            totalMillis += millis;
+            bestMillis = Math.min(bestMillis, millis);
+        }
+
+        public String summary() {
+            return String.format("平均 %.2fs，最快 %.2fs，共 %d 次", totalMillis / 1000.0 / count, bestMillis / 1000.0, count);
+        }
+    }
+
+    /**
+     * 用模块当前的快速启动配置替换配置中由插件维护的 VM 参数
+     */
+    public void apply(JUnitConfiguration configuration, Module module) {
+        String vmParameters = configuration.getVMParameters();
+        for (String prefix : MANAGED_PREFIXES) {
+            vmParameters = VmParameters.replace(vmParameters, prefix, null);
+        }
+        for (String option : FastTestSettings.getInstance(project).getLaunchProfile(module.getName()).toVmOptions()) {
+            vmParameters = VmParameters.replace(vmParameters, option, option);
+        }
+        configuration.setVMParameters(vmParameters);
+    }
+
+    /**
+     * 模块各配置的测量结果，按首次出现的顺序
+     */
+    public synchronized Map<String, Timing> getTimings(String moduleName) {
+        return new LinkedHashMap<>(timings.getOrDefault(moduleName, Map.of()));
+    }
+
+    /**
+     * 返回在进程启动后记录首次调用耗时的回调；Debug 运行会在断点处暂停，不参与测量
+     */
+    public @Nullable ProgramRunner.Callback customize(RunnerAndConfigurationSettings settings,
+                                                      LaunchMode launchMode,
+                                                      @Nullable ProgramRunner.Callback callback) {
+        if (launchMode == LaunchMode.DEBUG || !(settings.getConfiguration() instanceof JUnitConfiguration configuration)) {
+            return callback;
+        }
+        Module module = configuration.getConfigurationModule().getModule();
+        if (module == null) {
+            return callback;
+        }
+        String moduleName = module.getName();
+        String profile = FastTestSettings.getInstance(project).getLaunchProfile(moduleName).describe();
+        return new ProgramRunner.Callback() {
+            @Override
+            public void processStarted(RunContentDescriptor descriptor) {
+                if (callback != null) {
+                    callback.processStarted(descriptor);
+                }
+                ProcessHandler processHandler = descriptor == null ? null : descriptor.getProcessHandler();
+                if (processHandler != null) {
+                    // 进程启动时才开始计时，不包含启动前的编译
+                    attach(processHandler, moduleName, profile, System.nanoTime());
+                }
+            }
+        };
+    }
+
+    private void attach(ProcessHandler processHandler, String moduleName, String profile, long startedAt) {
+        AtomicBoolean measured = new AtomicBoolean();
+        MessageBusConnection connection = project.getMessageBus().connect();
+        connection.subscribe(SMTRunnerEventsListener.TEST_STATUS, new SMTRunnerEventsAdapter() {
+            @Override
+            public void onTestFinished(@NotNull SMTestProxy test) {
+                AbstractTestProxy root = test;
+                while (root.getParent() != null) {
+                    root = root.getParent();
+                }
+                if (root instanceof SMTestProxy.SMRootTestProxy rootProxy
+                    && rootProxy.getHandler() == processHandler
+                    && measured.compareAndSet(false, true)) {
+                    record(moduleName, profile, (System.nanoTime() - startedAt) / 1_000_000);
+                }
+            }
+        });
+        processHandler.addProcessListener(new ProcessListener() {
+            @Override
+            public void processTerminated(@NotNull ProcessEvent event) {
+                connection.disconnect();
+            }
+        });
+    }
+
+    private synchronized void record(String moduleName, String profile, long millis) {
+        Map<String, Timing> moduleTimings = timings.computeIfAbsent(moduleName, name -> new LinkedHashMap<>());
+        moduleTimings.computeIfAbsent(profile, key -> new Timing()).add(millis);
+
+        StringBuilder content = new StringBuilder(String.format("首次调用耗时 %.2fs", millis / 1000.0));
+        moduleTimings.forEach((key, timing) -> content.append("<br/>")
+            .append(key.equals(profile) ? "<b>" : "")
+            .append(key).append("：").append(timing.summary())
+            .append(key.equals(profile) ? "</b>" : ""));
+        TestDaemonManager.getInstance(project).notify(content.toString(), NotificationType.INFORMATION);
+    }
+}
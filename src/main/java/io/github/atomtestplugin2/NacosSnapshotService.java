@@ -0,0 +1,269 @@
+package io.github.atomtestplugin2;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.application.WriteAction;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.io.HttpRequests;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Nacos 配置快照：按测试属性文件中的 Nacos 配置一次性拉取远程配置保存到 src/test/resources/nacos-snapshot，
+ * 之后的测试以本地属性文件的方式加载，不再访问网络
+ */
+@Service(Service.Level.PROJECT)
+public final class NacosSnapshotService {
+
+    public static final String SNAPSHOT_DIRECTORY = "nacos-snapshot";
+
+    private static final String SOURCES_FILE = ".sources";
+
+    private static final String DEFAULT_GROUP = "DEFAULT_GROUP";
+
+    private final Project project;
+
+    public NacosSnapshotService(Project project) {
+        this.project = project;
+    }
+
+    public static NacosSnapshotService getInstance(Project project) {
+        return project.getService(NacosSnapshotService.class);
+    }
+
+    /**
+     * 根据属性文件中的 Nacos 配置拉取全部 dataId，返回写入的快照文件（相对 src/test/resources 的路径）
+     */
+    public List<String> createSnapshot(Module module, List<String> propertyFiles, ProgressIndicator indicator)
+        throws IOException {
+        Map<String, String> settings = PropertyFiles.read(getResourcesRoot(module), propertyFiles);
+
+        String serverAddr = firstNonEmpty(
+            PropertyFiles.get(settings, "spring.cloud.nacos.config.server-addr"),
+            PropertyFiles.get(settings, "spring.cloud.nacos.server-addr")
+        );
+        if (serverAddr == null) {
+            throw new IOException("未在属性文件中找到 spring.cloud.nacos.config.server-addr");
+        }
+        String server = serverAddr.split(",")[0].trim();
+        if (!server.startsWith("http")) {
+            server = "http://" + server;
+        }
+        String namespace = StringUtil.notNullize(
+            PropertyFiles.get(settings, "spring.cloud.nacos.config.namespace")
+        );
+        String group = StringUtil.defaultIfEmpty(
+            PropertyFiles.get(settings, "spring.cloud.nacos.config.group"), DEFAULT_GROUP
+        );
+        String accessToken = login(server, settings);
+        String extension = getFileExtension(settings);
+
+        Map<String, String> snapshot = new LinkedHashMap<>();
+        for (Map.Entry<String, String> dataId : getDataIds(settings, group).entrySet()) {
+            indicator.checkCanceled();
+            // 不带扩展名的 dataId 只在带扩展名的配置不存在时拉取
+            if (!hasExtension(dataId.getKey()) && snapshot.containsKey(dataId.getKey() + "." + extension)) {
+                continue;
+            }
+            indicator.setText2(dataId.getKey());
+            String url = server + "/nacos/v1/cs/configs?dataId=" + encode(dataId.getKey())
+                + "&group=" + encode(dataId.getValue())
+                + (namespace.isEmpty() ? "" : "&tenant=" + encode(namespace))
+                + (accessToken == null ? "" : "&accessToken=" + encode(accessToken));
+            try {
+                snapshot.put(dataId.getKey(), HttpRequests.request(url).readString(indicator));
+            } catch (HttpRequests.HttpStatusException e) {
+                // 可选的 dataId（如 profile 配置）不存在时跳过
+                if (e.getStatusCode() != 404) {
+                    throw e;
+                }
+            }
+        }
+        if (snapshot.isEmpty()) {
+            throw new IOException("未从 " + server + " 拉取到任何配置");
+        }
+        return writeSnapshot(module, withExtensions(snapshot, extension), propertyFiles);
+    }
+
+    /**
+     * 从 Nacos 控制台导出的 zip（条目为 group/dataId）生成快照
+     */
+    public List<String> importExport(Module module, VirtualFile exportZip, List<String> propertyFiles)
+        throws IOException {
+        Map<String, String> snapshot = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(exportZip.getInputStream())) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                String name = entry.getName();
+                if (entry.isDirectory() || name.contains(".meta") || !name.contains("/")) {
+                    continue;
+                }
+                snapshot.put(name.substring(name.lastIndexOf('/') + 1),
+                    new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        if (snapshot.isEmpty()) {
+            throw new IOException("导出文件中没有配置");
+        }
+        String extension = getFileExtension(PropertyFiles.read(getResourcesRoot(module), propertyFiles));
+        return writeSnapshot(module, withExtensions(snapshot, extension), propertyFiles);
+    }
+
+    /**
+     * 上次生成快照时使用的属性文件，用于刷新快照
+     */
+    public @Nullable List<String> getSnapshotSources(Module module) {
+        VirtualFile resourcesRoot = AtomTestFrameworkService.getInstance(project).findTestRoot(module, "resources");
+        VirtualFile sources = resourcesRoot == null
+            ? null
+            : resourcesRoot.findFileByRelativePath(SNAPSHOT_DIRECTORY + "/" + SOURCES_FILE);
+        if (sources == null) {
+            return null;
+        }
+        try {
+            return StringUtil.split(VfsUtil.loadText(sources), "\n");
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private List<String> writeSnapshot(Module module, Map<String, String> snapshot, List<String> propertyFiles)
+        throws IOException {
+        VirtualFile resourcesRoot = getResourcesRoot(module);
+        List<String> written = new ArrayList<>();
+        WriteAction.runAndWait(() -> {
+            VirtualFile directory = VfsUtil.createDirectoryIfMissing(resourcesRoot, SNAPSHOT_DIRECTORY);
+            for (Map.Entry<String, String> entry : snapshot.entrySet()) {
+                VirtualFile file = directory.findOrCreateChildData(this, entry.getKey());
+                VfsUtil.saveText(file, entry.getValue());
+                written.add(SNAPSHOT_DIRECTORY + "/" + entry.getKey());
+            }
+            VfsUtil.saveText(
+                directory.findOrCreateChildData(this, SOURCES_FILE),
+                String.join("\n", propertyFiles)
+            );
+        });
+        return written;
+    }
+
+    private VirtualFile getResourcesRoot(Module module) throws IOException {
+        VirtualFile resourcesRoot = ReadAction.compute(
+            () -> AtomTestFrameworkService.getInstance(project).findTestRoot(module, "resources")
+        );
+        if (resourcesRoot == null) {
+            throw new IOException("模块缺少 src/test/resources 目录");
+        }
+        return resourcesRoot;
+    }
+
+    /**
+     * 计算需要拉取的 dataId 与所属 group，规则与 spring-cloud-alibaba-nacos-config 一致
+     */
+    private Map<String, String> getDataIds(Map<String, String> settings, String group) {
+        Map<String, String> dataIds = new LinkedHashMap<>();
+        for (String prefix : new String[]{"spring.cloud.nacos.config.shared-configs",
+            "spring.cloud.nacos.config.extension-configs"}) {
+            for (int i = 0; ; i++) {
+                String dataId = PropertyFiles.get(settings, prefix + "[" + i + "].data-id");
+                if (dataId == null) {
+                    break;
+                }
+                dataIds.put(dataId, StringUtil.defaultIfEmpty(
+                    PropertyFiles.get(settings, prefix + "[" + i + "].group"), DEFAULT_GROUP
+                ));
+            }
+        }
+
+        String prefix = firstNonEmpty(
+            PropertyFiles.get(settings, "spring.cloud.nacos.config.prefix"),
+            PropertyFiles.get(settings, "spring.application.name")
+        );
+        if (prefix != null) {
+            String extension = getFileExtension(settings);
+            dataIds.put(prefix + "." + extension, group);
+            dataIds.put(prefix, group);
+            String profiles = PropertyFiles.get(settings, "spring.profiles.active");
+            if (profiles != null) {
+                for (String profile : profiles.split(",")) {
+                    dataIds.put(prefix + "-" + profile.trim() + "." + extension, group);
+                }
+            }
+        }
+        return dataIds;
+    }
+
+    private static String getFileExtension(Map<String, String> settings) {
+        return StringUtil.defaultIfEmpty(
+            PropertyFiles.get(settings, "spring.cloud.nacos.config.file-extension"), "properties"
+        );
+    }
+
+    private static boolean hasExtension(String dataId) {
+        return dataId.endsWith(".properties") || dataId.endsWith(".yml") || dataId.endsWith(".yaml");
+    }
+
+    /**
+     * 快照文件按扩展名选择加载格式：不带扩展名的 dataId 补上 file-extension，同名带扩展名的配置已存在时丢弃
+     */
+    private static Map<String, String> withExtensions(Map<String, String> snapshot, String extension) {
+        Map<String, String> files = new LinkedHashMap<>();
+        snapshot.forEach((dataId, content) -> {
+            if (hasExtension(dataId)) {
+                files.put(dataId, content);
+            }
+        });
+        snapshot.forEach((dataId, content) -> {
+            if (!hasExtension(dataId)) {
+                files.putIfAbsent(dataId + "." + extension, content);
+            }
+        });
+        return files;
+    }
+
+    private @Nullable String login(String server, Map<String, String> settings) throws IOException {
+        String username = PropertyFiles.get(settings, "spring.cloud.nacos.config.username");
+        String password = PropertyFiles.get(settings, "spring.cloud.nacos.config.password");
+        if (username == null || password == null) {
+            return null;
+        }
+        // 登录失败时 Nacos 返回 403 与纯文本原因，读取响应体作为错误信息
+        String response = HttpRequests.post(server + "/nacos/v1/auth/login", "application/x-www-form-urlencoded")
+            .throwStatusCodeException(false)
+            .connect(request -> {
+                request.write("username=" + encode(username) + "&password=" + encode(password));
+                return request.readString();
+            });
+        try {
+            JsonElement json = JsonParser.parseString(response);
+            JsonElement accessToken = json.isJsonObject() ? json.getAsJsonObject().get("accessToken") : null;
+            if (accessToken != null && accessToken.isJsonPrimitive()) {
+                return accessToken.getAsString();
+            }
+        } catch (JsonParseException e) {
+            // 非 JSON 响应按登录失败处理
+        }
+        throw new IOException("Nacos 登录失败：" + StringUtil.trimLog(response.trim(), 500));
+    }
+
+    private static @Nullable String firstNonEmpty(@Nullable String first, @Nullable String second) {
+        return first != null ? first : second;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
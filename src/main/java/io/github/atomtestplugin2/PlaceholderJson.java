@@ -0,0 +1,233 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.psi.*;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.InheritanceUtil;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiUtil;
+import com.intellij.psi.util.TypeConversionUtil;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按参数类型生成可直接编辑的示例 JSON：递归展开嵌套类、集合、Map、枚举与泛型，
+ * 类型成环时输出 null，超过深度时输出空对象；展开结果按 PsiClass 缓存，PSI 变化后失效
+ */
+public final class PlaceholderJson {
+
+    public static final int DEFAULT_MAX_DEPTH = 4;
+
+    private static final Map<String, String> SAMPLE_VALUES = Map.ofEntries(
+        Map.entry("java.lang.String", "\"\""),
+        Map.entry("java.lang.CharSequence", "\"\""),
+        Map.entry("java.lang.Character", "\"a\""),
+        Map.entry("java.lang.Boolean", "false"),
+        Map.entry("java.math.BigDecimal", "0"),
+        Map.entry("java.math.BigInteger", "0"),
+        Map.entry("java.util.Date", "\"2024-01-01 00:00:00\""),
+        Map.entry("java.sql.Timestamp", "\"2024-01-01 00:00:00\""),
+        Map.entry("java.time.LocalDateTime", "\"2024-01-01 00:00:00\""),
+        Map.entry("java.time.LocalDate", "\"2024-01-01\""),
+        Map.entry("java.time.LocalTime", "\"00:00:00\""),
+        Map.entry("java.time.Instant", "\"2024-01-01T00:00:00Z\""),
+        Map.entry("java.util.UUID", "\"00000000-0000-0000-0000-000000000000\"")
+    );
+
+    private PlaceholderJson() {
+    }
+
+    /**
+     * 生成格式化后的示例 JSON，需在读操作中调用
+     */
+    public static String generate(PsiType type, int maxDepth) {
+        return format(expand(type, maxDepth, new Context()));
+    }
+
+    /**
+     * 当前展开路径上的类，用于检测环；cycleHit 表示子树因环被截断，此时结果依赖路径不能缓存
+     */
+    private static class Context {
+
+        private final Set<String> path = new HashSet<>();
+
+        private boolean cycleHit;
+    }
+
+    private static String expand(PsiType type, int depth, Context context) {
+        if (type instanceof PsiPrimitiveType primitiveType) {
+            if (PsiTypes.booleanType().equals(primitiveType)) {
+                return "false";
+            }
+            return PsiTypes.charType().equals(primitiveType) ? "\"a\"" : "0";
+        }
+        if (type instanceof PsiWildcardType wildcardType) {
+            return wildcardType.getBound() == null ? "null" : expand(wildcardType.getBound(), depth, context);
+        }
+        if (type instanceof PsiArrayType arrayType) {
+            return depth <= 0 ? "[]" : "[" + expand(arrayType.getComponentType(), depth - 1, context) + "]";
+        }
+        if (!(type instanceof PsiClassType classType)) {
+            return "null";
+        }
+
+        PsiClassType.ClassResolveResult resolveResult = classType.resolveGenerics();
+        PsiClass psiClass = resolveResult.getElement();
+        if (psiClass == null || psiClass instanceof PsiTypeParameter) {
+            return "null";
+        }
+        String qualifiedName = psiClass.getQualifiedName();
+        if (qualifiedName != null && SAMPLE_VALUES.containsKey(qualifiedName)) {
+            return SAMPLE_VALUES.get(qualifiedName);
+        }
+        if (InheritanceUtil.isInheritor(psiClass, CommonClassNames.JAVA_LANG_NUMBER)) {
+            return "0";
+        }
+        if (psiClass.isEnum()) {
+            for (PsiField field : psiClass.getFields()) {
+                if (field instanceof PsiEnumConstant) {
+                    return "\"" + field.getName() + "\"";
+                }
+            }
+            return "null";
+        }
+        if (CommonClassNames.JAVA_UTIL_OPTIONAL.equals(qualifiedName)) {
+            return expand(typeArgument(classType, 0), depth, context);
+        }
+        if (InheritanceUtil.isInheritor(psiClass, CommonClassNames.JAVA_LANG_ITERABLE)) {
+            PsiType elementType = PsiUtil.extractIterableTypeParameter(classType, false);
+            return depth <= 0 || elementType == null ? "[]" : "[" + expand(elementType, depth - 1, context) + "]";
+        }
+        if (InheritanceUtil.isInheritor(psiClass, CommonClassNames.JAVA_UTIL_MAP)) {
+            PsiType valueType = typeArgument(classType, 1);
+            return depth <= 0 || valueType == null
+                ? "{}"
+                : "{\"" + mapKey(typeArgument(classType, 0)) + "\":" + expand(valueType, depth - 1, context) + "}";
+        }
+        if (qualifiedName == null || qualifiedName.startsWith("java.") || psiClass.isInterface()) {
+            return CommonClassNames.JAVA_LANG_OBJECT.equals(qualifiedName) ? "{}" : "null";
+        }
+        if (depth <= 0) {
+            return "{}";
+        }
+        if (!context.path.add(qualifiedName)) {
+            context.cycleHit = true;
+            return "null";
+        }
+
+        // 同一类型与剩余深度的展开结果不依赖路径时可以复用
+        Map<String, String> cache = CachedValuesManager.getCachedValue(psiClass, () -> CachedValueProvider.Result.create(
+            new ConcurrentHashMap<>(), PsiModificationTracker.MODIFICATION_COUNT
+        ));
+        String cacheKey = classType.getCanonicalText() + "#" + depth;
+        String json = cache.get(cacheKey);
+        if (json == null) {
+            boolean outerCycleHit = context.cycleHit;
+            context.cycleHit = false;
+            json = expandFields(psiClass, resolveResult.getSubstitutor(), depth, context);
+            if (!context.cycleHit) {
+                cache.put(cacheKey, json);
+            }
+            context.cycleHit |= outerCycleHit;
+        }
+        context.path.remove(qualifiedName);
+        return json;
+    }
+
+    private static String expandFields(PsiClass psiClass, PsiSubstitutor substitutor, int depth, Context context) {
+        StringBuilder builder = new StringBuilder("{");
+        Set<String> names = new HashSet<>();
+        for (PsiField field : psiClass.getAllFields()) {
+            PsiClass fieldClass = field.getContainingClass();
+            if (field.hasModifierProperty(PsiModifier.STATIC)
+                || field.hasModifierProperty(PsiModifier.TRANSIENT)
+                || fieldClass == null
+                || !names.add(field.getName())) {
+                continue;
+            }
+            // 父类字段的类型变量按子类的泛型实参替换
+            PsiSubstitutor fieldSubstitutor = fieldClass == psiClass
+                ? substitutor
+                : TypeConversionUtil.getSuperClassSubstitutor(fieldClass, psiClass, substitutor);
+            if (builder.length() > 1) {
+                builder.append(",");
+            }
+            builder.append("\"").append(field.getName()).append("\":")
+                .append(expand(fieldSubstitutor.substitute(field.getType()), depth - 1, context));
+        }
+        return builder.append("}").toString();
+    }
+
+    /**
+     * Map 示例的键需能按键类型反序列化：数字类型为 0，枚举为第一个常量，其余为 key
+     */
+    private static String mapKey(@Nullable PsiType keyType) {
+        if (keyType instanceof PsiWildcardType wildcardType) {
+            keyType = wildcardType.getBound();
+        }
+        PsiClass keyClass = PsiUtil.resolveClassInClassTypeOnly(keyType);
+        if (keyClass == null) {
+            return "key";
+        }
+        if (keyClass.isEnum()) {
+            for (PsiField field : keyClass.getFields()) {
+                if (field instanceof PsiEnumConstant) {
+                    return field.getName();
+                }
+            }
+            return "key";
+        }
+        if (InheritanceUtil.isInheritor(keyClass, CommonClassNames.JAVA_LANG_NUMBER)) {
+            return "0";
+        }
+        return CommonClassNames.JAVA_LANG_BOOLEAN.equals(keyClass.getQualifiedName()) ? "false" : "key";
+    }
+
+    private static @Nullable PsiType typeArgument(PsiClassType classType, int index) {
+        PsiType[] parameters = classType.getParameters();
+        return index < parameters.length ? parameters[index] : null;
+    }
+
+    /**
+     * 把紧凑 JSON 按两个空格缩进展开，空对象与空数组保持在一行
+     */
+    private static String format(String json) {
+        StringBuilder builder = new StringBuilder();
+        int indent = 0;
+        boolean inString = false;
+        for (int i = 0; i < json.length(); i++) {
+            char c = json.charAt(i);
+            if (c == '"' && (i == 0 || json.charAt(i - 1) != '\\')) {
+                inString = !inString;
+            }
+            if (inString) {
+                builder.append(c);
+                continue;
+            }
+            switch (c) {
+                case '{', '[' -> {
+                    char next = i + 1 < json.length() ? json.charAt(i + 1) : ' ';
+                    if (next == '}' || next == ']') {
+                        builder.append(c).append(next);
+                        i++;
+                    } else {
+                        indent++;
+                        builder.append(c).append('\n').append("  ".repeat(indent));
+                    }
+                }
+                case '}', ']' -> {
+                    indent--;
+                    builder.append('\n').append("  ".repeat(indent)).append(c);
+                }
+                case ',' -> builder.append(",\n").append("  ".repeat(indent));
+                case ':' -> builder.append(": ");
+                default -> builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.projectRoots.JavaSdk;
+import com.intellij.openapi.projectRoots.JavaSdkVersion;
+import com.intellij.openapi.projectRoots.Sdk;
+import com.intellij.openapi.roots.ModuleRootManager;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.util.ClassUtil;
+
+import java.util.List;
+
+/**
+ * Profile 模式：复用常驻 JVM 中的上下文，用 JFR 记录方法的多次调用，在 Atom Test 工具窗口中显示火焰图
+ */
+public class ProfileJUnitTestAction extends WarmRunJUnitTestAction {
+
+    private static final String PROFILER_SIMPLE_NAME = "AtomTestProfiler";
+
+    private int rounds = 1000;
+
+    @Override
+    protected void onTestClassReady(PsiMethod method,
+                                    Project project,
+                                    PsiClass testClass,
+                                    PsiClass containingClass,
+                                    Module module) {
+        Sdk sdk = ModuleRootManager.getInstance(module).getSdk();
+        JavaSdkVersion version = sdk == null ? null : JavaSdk.getInstance().getVersion(sdk);
+        if (version != null && !version.isAtLeast(JavaSdkVersion.JDK_11)) {
+            Messages.showMessageDialog(project, "JFR 记录需要 JDK 11 及以上版本", "Error", Messages.getErrorIcon());
+            return;
+        }
+
+        // 记录器过期时经确认后按新模板覆盖，常驻 JVM 需要重启才能加载新的记录器
+        boolean profilerReady = SupportSources.isCurrent(project, module, PROFILER_SIMPLE_NAME);
+        if (!SupportSources.ensure(project, module, PROFILER_SIMPLE_NAME)) {
+            Messages.showMessageDialog(project, "生成 JFR 记录器失败", "Error", Messages.getErrorIcon());
+            return;
+        }
+        if (!profilerReady) {
+            TestDaemonManager.getInstance(project).shutdown(testClass.getQualifiedName());
+        }
+        super.onTestClassReady(method, project, testClass, containingClass, module);
+    }
+
+    /**
+     * 发送给常驻 JVM 的命令，同时是记录器中对应的方法名
+     */
+    protected String getCommand() {
+        return "profile";
+    }
+
+    protected int getRounds() {
+        return rounds;
+    }
+
+    @Override
+    protected boolean confirmDispatch(Project project, PsiMethod method) {
+        String roundsText = Messages.showInputDialog(
+            project,
+            "记录期间的调用次数（调用越多采样越充分）:",
+            getTemplatePresentation().getText() + " " + method.getName(),
+            Messages.getQuestionIcon(),
+            String.valueOf(rounds),
+            null
+        );
+        if (roundsText == null) {
+            return false;
+        }
+        try {
+            int value = Integer.parseInt(roundsText.trim());
+            if (value < 1) {
+                throw new NumberFormatException();
+            }
+            rounds = value;
+            return true;
+        } catch (NumberFormatException ex) {
+            Messages.showMessageDialog(project, "调用次数需为正整数", "Error", Messages.getErrorIcon());
+            return false;
+        }
+    }
+
+    @Override
+    protected void dispatch(TestDaemonManager daemonManager,
+                            String testClassName,
+                            PsiMethod method,
+                            List<String> parameterTypes,
+                            List<String> jsonArgs) {
+        PsiClass containingClass = method.getContainingClass();
+        String targetClassName = containingClass == null ? "" : ClassUtil.getJVMClassName(containingClass);
+        daemonManager.profile(
+            testClassName, method.getName(), targetClassName == null ? "" : targetClassName,
+            parameterTypes, jsonArgs, rounds
+        );
+    }
+}
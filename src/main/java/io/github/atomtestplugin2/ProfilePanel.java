@@ -0,0 +1,241 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.fileEditor.OpenFileDescriptor;
+import com.intellij.openapi.project.Project;
+import com.intellij.pom.Navigatable;
+import com.intellij.psi.*;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.ui.JBColor;
+import com.intellij.ui.JBSplitter;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import com.intellij.util.ui.JBUI;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 最近一次 Profile 的结果：左侧为自身采样最多的方法，右侧为从被测方法展开的火焰图，双击方法或单击火焰图跳转到源码
+ */
+public class ProfilePanel extends JPanel implements Disposable {
+
+    private final Project project;
+
+    private final JfrProfiles jfrProfiles;
+
+    private final JBLabel summaryLabel = new JBLabel();
+
+    private final List<JfrProfiles.HotMethod> hotMethods = new ArrayList<>();
+
+    private final DefaultTableModel methodTableModel =
+        new DefaultTableModel(new String[]{"Method", "Self %", "Total %"}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+
+    private final FlameGraph flameGraph = new FlameGraph();
+
+    public ProfilePanel(Project project) {
+        super(new BorderLayout());
+        this.project = project;
+        this.jfrProfiles = JfrProfiles.getInstance(project);
+
+        JBTable methodTable = new JBTable(methodTableModel);
+        methodTable.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent event) {
+                int row = methodTable.rowAtPoint(event.getPoint());
+                if (event.getClickCount() == 2 && row >= 0 && row < hotMethods.size()) {
+                    JfrProfiles.HotMethod hotMethod = hotMethods.get(row);
+                    navigate(hotMethod.className(), hotMethod.methodName(), hotMethod.lineNumber());
+                }
+            }
+        });
+
+        JBSplitter splitter = new JBSplitter(false, 0.35f);
+        splitter.setFirstComponent(new JBScrollPane(methodTable));
+        splitter.setSecondComponent(new JBScrollPane(flameGraph));
+        summaryLabel.setBorder(JBUI.Borders.empty(4, 8));
+        add(summaryLabel, BorderLayout.NORTH);
+        add(splitter, BorderLayout.CENTER);
+
+        jfrProfiles.addListener(this::refresh, this);
+        refresh();
+    }
+
+    @Override
+    public void dispose() {
+        // 服务中的监听器以本面板为父 Disposable 注册，随工具窗口内容一起移除
+    }
+
+    private void refresh() {
+        JfrProfiles.Profile profile = jfrProfiles.getLastProfile();
+        hotMethods.clear();
+        methodTableModel.setRowCount(0);
+        if (profile == null) {
+            summaryLabel.setText("使用 Profile 运行方法后在此显示 CPU 火焰图");
+            flameGraph.setRoot(null);
+            return;
+        }
+        int samples = profile.root().getSamples();
+        summaryLabel.setText(String.format("%s  调用 %d 次，平均 %.3f ms，CPU 采样 %d 个",
+            profile.method(), profile.rounds(), profile.totalNanos() / 1_000_000.0 / profile.rounds(), samples));
+        for (JfrProfiles.HotMethod hotMethod : profile.hotMethods()) {
+            hotMethods.add(hotMethod);
+            methodTableModel.addRow(new Object[]{
+                hotMethod.className().substring(hotMethod.className().lastIndexOf('.') + 1)
+                    + "." + hotMethod.methodName(),
+                String.format("%.1f", hotMethod.selfSamples() * 100.0 / samples),
+                String.format("%.1f", hotMethod.totalSamples() * 100.0 / samples)
+            });
+        }
+        flameGraph.setRoot(profile.root());
+    }
+
+    /**
+     * 有源码时按采样到的行号打开，否则跳转到方法声明；匿名类与 lambda 退回到外部类
+     */
+    private void navigate(String className, String methodName, int lineNumber) {
+        GlobalSearchScope scope = GlobalSearchScope.allScope(project);
+        JavaPsiFacade javaPsiFacade = JavaPsiFacade.getInstance(project);
+        PsiClass psiClass = javaPsiFacade.findClass(className.replace('$', '.'), scope);
+        if (psiClass == null && className.contains("$")) {
+            psiClass = javaPsiFacade.findClass(className.substring(0, className.indexOf('$')), scope);
+        }
+        if (psiClass == null) {
+            return;
+        }
+        PsiElement sourceClass = psiClass.getNavigationElement();
+        PsiFile sourceFile = sourceClass.getContainingFile();
+        if (lineNumber > 0 && !(sourceClass instanceof PsiCompiledElement) && sourceFile != null
+            && sourceFile.getVirtualFile() != null) {
+            new OpenFileDescriptor(project, sourceFile.getVirtualFile(), lineNumber - 1, 0).navigate(true);
+            return;
+        }
+        PsiMethod[] methods = psiClass.findMethodsByName(methodName, false);
+        PsiElement target = methods.length > 0 ? methods[0] : psiClass;
+        if (target instanceof Navigatable navigatable) {
+            navigatable.navigate(true);
+        }
+    }
+
+    /**
+     * 自上而下展开的火焰图，宽度按采样数占比
+     */
+    private class FlameGraph extends JComponent {
+
+        private static final int ROW_HEIGHT = 18;
+
+        private static final Color[] COLORS = {
+            new JBColor(new Color(0xF2A65A), new Color(0xA86B32)),
+            new JBColor(new Color(0xEEC170), new Color(0xA8853F)),
+            new JBColor(new Color(0xF58549), new Color(0xAA5A2E))
+        };
+
+        private JfrProfiles.Node root;
+
+        FlameGraph() {
+            setToolTipText("");
+            addMouseListener(new MouseAdapter() {
+                @Override
+                public void mouseClicked(MouseEvent event) {
+                    JfrProfiles.Node node = findNode(event.getPoint());
+                    if (node != null && node != root) {
+                        navigate(node.getClassName(), node.getMethodName(), node.getLineNumber());
+                    }
+                }
+            });
+        }
+
+        void setRoot(JfrProfiles.Node root) {
+            this.root = root;
+            setPreferredSize(new Dimension(JBUI.scale(800), (depth(root) + 1) * JBUI.scale(ROW_HEIGHT)));
+            revalidate();
+            repaint();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            if (root != null) {
+                paintNode(g, root, 0, getWidth(), 0);
+            }
+        }
+
+        private void paintNode(Graphics g, JfrProfiles.Node node, double x, double width, int depth) {
+            int rowHeight = JBUI.scale(ROW_HEIGHT);
+            if (width < 1) {
+                return;
+            }
+            g.setColor(COLORS[Math.floorMod(node.getLabel().hashCode(), COLORS.length)]);
+            g.fillRect((int) x, depth * rowHeight, (int) Math.max(1, width) - 1, rowHeight - 1);
+            String label = node.getLabel();
+            FontMetrics metrics = g.getFontMetrics();
+            if (metrics.stringWidth(label) < width - 4) {
+                g.setColor(JBColor.foreground());
+                g.drawString(label, (int) x + 2, (depth + 1) * rowHeight - metrics.getDescent() - 2);
+            }
+            double childX = x;
+            for (JfrProfiles.Node child : node.getChildren()) {
+                double childWidth = width * child.getSamples() / node.getSamples();
+                paintNode(g, child, childX, childWidth, depth + 1);
+                childX += childWidth;
+            }
+        }
+
+        @Override
+        public String getToolTipText(MouseEvent event) {
+            JfrProfiles.Node node = findNode(event.getPoint());
+            return node == null
+                ? null
+                : String.format("%s  %d samples (%.1f%%)",
+                    node.getLabel(), node.getSamples(), node.getSamples() * 100.0 / root.getSamples());
+        }
+
+        private JfrProfiles.Node findNode(Point point) {
+            if (root == null) {
+                return null;
+            }
+            int depth = point.y / JBUI.scale(ROW_HEIGHT);
+            JfrProfiles.Node node = root;
+            double x = 0;
+            double width = getWidth();
+            for (int level = 0; level < depth; level++) {
+                JfrProfiles.Node next = null;
+                for (JfrProfiles.Node child : node.getChildren()) {
+                    double childWidth = width * child.getSamples() / node.getSamples();
+                    if (point.x >= x && point.x < x + childWidth) {
+                        next = child;
+                        width = childWidth;
+                        break;
+                    }
+                    x += childWidth;
+                }
+                if (next == null) {
+                    return null;
+                }
+                node = next;
+            }
+            return point.x >= x && point.x < x + width ? node : null;
+        }
+
+        private int depth(JfrProfiles.Node node) {
+            int depth = 0;
+            if (node != null) {
+                for (JfrProfiles.Node child : node.getChildren()) {
+                    depth = Math.max(depth, depth(child) + 1);
+                }
+            }
+            return depth;
+        }
+    }
+}
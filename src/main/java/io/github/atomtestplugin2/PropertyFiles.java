@@ -0,0 +1,128 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.*;
+
+/**
+ * 测试属性文件（properties 与 yaml）的读取，key 按 Spring 宽松绑定规则匹配
+ */
+public final class PropertyFiles {
+
+    private PropertyFiles() {
+    }
+
+    /**
+     * 依次读取 resourcesRoot 下的属性文件并合并，后读取的文件覆盖先读取的同名 key，不存在的文件忽略
+     */
+    public static Map<String, String> read(VirtualFile resourcesRoot, List<String> propertyFiles) throws IOException {
+        Map<String, String> settings = new HashMap<>();
+        for (String propertyFile : propertyFiles) {
+            VirtualFile file = resourcesRoot.findFileByRelativePath(propertyFile.trim());
+            if (file != null) {
+                settings.putAll(read(file));
+            }
+        }
+        return settings;
+    }
+
+    /**
+     * 读取 properties 或 yaml，yaml 按缩进展开为扁平的 key
+     */
+    public static Map<String, String> read(VirtualFile file) throws IOException {
+        String text = VfsUtil.loadText(file);
+        Map<String, String> settings = new HashMap<>();
+        if ("properties".equals(file.getExtension())) {
+            Properties properties = new Properties();
+            properties.load(new StringReader(text));
+            properties.stringPropertyNames().forEach(name -> settings.put(name, properties.getProperty(name)));
+            return settings;
+        }
+
+        Deque<YamlNode> stack = new ArrayDeque<>();
+        Map<String, Integer> listCounters = new HashMap<>();
+        for (String rawLine : StringUtil.splitByLines(text)) {
+            String content = rawLine.trim();
+            if (content.isEmpty() || content.startsWith("#") || content.equals("---")) {
+                continue;
+            }
+            int indent = rawLine.indexOf(content.charAt(0));
+            if (content.startsWith("-")) {
+                while (!stack.isEmpty()
+                    && (stack.peek().indent() > indent || stack.peek().indent() == indent && stack.peek().listItem())) {
+                    stack.pop();
+                }
+                String parent = stack.isEmpty() ? "" : stack.peek().path();
+                int index = listCounters.merge(parent, 1, Integer::sum) - 1;
+                String itemPath = parent + "[" + index + "]";
+                String rest = content.substring(1).trim();
+                if (!rest.isEmpty() && !isKeyLine(rest)) {
+                    settings.put(itemPath, unquote(rest));
+                    continue;
+                }
+                stack.push(new YamlNode(indent, itemPath, true));
+                if (rest.isEmpty()) {
+                    continue;
+                }
+                content = rest;
+                indent = indent + 2;
+            }
+            if (!isKeyLine(content)) {
+                continue;
+            }
+            while (!stack.isEmpty() && stack.peek().indent() >= indent) {
+                stack.pop();
+            }
+            int separator = content.indexOf(':');
+            String key = unquote(content.substring(0, separator).trim());
+            String value = content.substring(separator + 1).trim();
+            String path = stack.isEmpty() ? key : stack.peek().path() + "." + key;
+            if (value.isEmpty()) {
+                stack.push(new YamlNode(indent, path, false));
+            } else if (!value.startsWith("#")) {
+                settings.put(path, unquote(value));
+            }
+        }
+        return settings;
+    }
+
+    private record YamlNode(int indent, String path, boolean listItem) {
+    }
+
+    private static boolean isKeyLine(String content) {
+        int separator = content.indexOf(':');
+        return separator > 0 && (separator == content.length() - 1 || content.charAt(separator + 1) == ' ');
+    }
+
+    private static String unquote(String value) {
+        int comment = value.indexOf(" #");
+        String result = comment >= 0 ? value.substring(0, comment).trim() : value;
+        if (result.length() >= 2 && (result.startsWith("\"") && result.endsWith("\"")
+            || result.startsWith("'") && result.endsWith("'"))) {
+            return result.substring(1, result.length() - 1);
+        }
+        return result;
+    }
+
+    /**
+     * 按 Spring 宽松绑定规则查找 key，忽略大小写与连字符
+     */
+    public static @Nullable String get(Map<String, String> settings, String key) {
+        String normalizedKey = normalize(key);
+        for (Map.Entry<String, String> entry : settings.entrySet()) {
+            if (normalize(entry.getKey()).equals(normalizedKey)) {
+                return StringUtil.nullize(entry.getValue().trim());
+            }
+        }
+        return null;
+    }
+
+    private static String normalize(String key) {
+        return key.replace("-", "").replace("_", "").toLowerCase(Locale.ROOT);
+    }
+}
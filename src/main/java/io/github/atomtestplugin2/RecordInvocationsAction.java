@@ -0,0 +1,164 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.execution.RunManager;
+import com.intellij.execution.RunnerAndConfigurationSettings;
+import com.intellij.execution.application.ApplicationConfiguration;
+import com.intellij.execution.application.ApplicationConfigurationType;
+import com.intellij.execution.process.ProcessEvent;
+import com.intellij.execution.process.ProcessHandler;
+import com.intellij.execution.process.ProcessListener;
+import com.intellij.execution.runners.ProgramRunner;
+import com.intellij.execution.ui.RunContentDescriptor;
+import com.intellij.ide.util.TreeClassChooser;
+import com.intellij.ide.util.TreeClassChooserFactory;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.LangDataKeys;
+import com.intellij.openapi.application.WriteAction;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiDirectory;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.searches.AnnotatedElementsSearch;
+import com.intellij.util.execution.ParametersListUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 录制模式：以测试类路径启动本地应用，在选中方法所属的 Bean 上加 Spring AOP 拦截，
+ * 把真实调用的参数（可选返回值）按 Bean 写入 src/test/resources/atom-test-recordings/&lt;Bean&gt;.jsonl，供回放生成测试
+ */
+public class RecordInvocationsAction extends RunJUnitTestAction {
+
+    public static final String RECORDINGS_DIRECTORY = "atom-test-recordings";
+
+    private static final String RECORDER_SIMPLE_NAME = "AtomTestInvocationRecorder";
+
+    private static final String LAUNCHER_SIMPLE_NAME = "AtomTestRecordingLauncher";
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        Module module = e.getData(LangDataKeys.MODULE);
+        if (project == null || module == null) {
+            return;
+        }
+        List<PsiMethod> methods = getSelectedMethods(e);
+        if (methods.isEmpty()) {
+            Messages.showMessageDialog(project, "No public method selected.", "Error", Messages.getErrorIcon());
+            return;
+        }
+
+        PsiClass mainClass = chooseMainClass(project, module);
+        if (mainClass == null) {
+            return;
+        }
+        boolean recordResults = Messages.showYesNoDialog(
+            project, "是否同时录制返回值（用于回放时比对结果）？", "Record Invocations", Messages.getQuestionIcon()
+        ) == Messages.YES;
+
+        if (!SupportSources.ensure(project, module, RECORDER_SIMPLE_NAME)
+            || !SupportSources.ensure(project, module, LAUNCHER_SIMPLE_NAME)) {
+            Messages.showMessageDialog(project, "生成录制支持类失败", "Error", Messages.getErrorIcon());
+            return;
+        }
+        VirtualFile outputDirectory;
+        try {
+            outputDirectory = WriteAction.computeAndWait(() -> {
+                PsiDirectory resourcesDirectory = getTestResourcesDirectory(module, true);
+                return resourcesDirectory == null
+                    ? null
+                    : VfsUtil.createDirectoryIfMissing(resourcesDirectory.getVirtualFile(), RECORDINGS_DIRECTORY);
+            });
+        } catch (IOException ex) {
+            outputDirectory = null;
+        }
+        if (outputDirectory == null) {
+            Messages.showMessageDialog(project, "创建录制目录失败", "Error", Messages.getErrorIcon());
+            return;
+        }
+
+        Set<String> recordedMethods = new LinkedHashSet<>();
+        for (PsiMethod method : methods) {
+            PsiClass containingClass = method.getContainingClass();
+            if (containingClass != null && containingClass.getQualifiedName() != null) {
+                recordedMethods.add(containingClass.getQualifiedName() + "#" + method.getName());
+            }
+        }
+
+        List<String> vmParameters = new ArrayList<>();
+        vmParameters.add("-Datom.test.record.main=" + mainClass.getQualifiedName());
+        vmParameters.add("-Dcontext.initializer.classes=" + SupportSources.PACKAGE + "." + RECORDER_SIMPLE_NAME);
+        vmParameters.add("-Datom.test.record.methods=" + String.join(",", recordedMethods));
+        vmParameters.add("-Datom.test.record.output=" + outputDirectory.getPath());
+        vmParameters.add("-Datom.test.record.results=" + recordResults);
+
+        RunnerAndConfigurationSettings configurationSettings = RunManager.getInstance(project).createConfiguration(
+            mainClass.getName() + " (recording)",
+            ApplicationConfigurationType.getInstance().getConfigurationFactories()[0]
+        );
+        ApplicationConfiguration configuration = (ApplicationConfiguration) configurationSettings.getConfiguration();
+        // 启动类放在测试源码中，运行时会带上测试类路径
+        configuration.setMainClassName(SupportSources.PACKAGE + "." + LAUNCHER_SIMPLE_NAME);
+        configuration.setModule(module);
+        configuration.setVMParameters(ParametersListUtil.join(vmParameters));
+
+        runConfiguration(configurationSettings, project, LaunchMode.RUN, new ProgramRunner.Callback() {
+            @Override
+            public void processStarted(RunContentDescriptor descriptor) {
+                ProcessHandler processHandler = descriptor == null ? null : descriptor.getProcessHandler();
+                if (processHandler == null) {
+                    return;
+                }
+                processHandler.addProcessListener(new ProcessListener() {
+                    @Override
+                    public void processTerminated(@NotNull ProcessEvent event) {
+                        VfsUtil.markDirtyAndRefresh(true, true, true, outputDirectory);
+                        TestDaemonManager.getInstance(project).notify(
+                            "录制已结束，结果保存在 " + outputDirectory.getPath() + "，可在方法上使用 Replay Recording 回放",
+                            NotificationType.INFORMATION
+                        );
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * 模块中只有一个 SpringBootApplication 时直接使用，否则让用户选择
+     */
+    private @Nullable PsiClass chooseMainClass(Project project, Module module) {
+        PsiClass annotation = JavaPsiFacade.getInstance(project).findClass(
+            "org.springframework.boot.autoconfigure.SpringBootApplication",
+            GlobalSearchScope.moduleWithDependenciesAndLibrariesScope(module)
+        );
+        if (annotation != null) {
+            Collection<PsiClass> applications =
+                AnnotatedElementsSearch.searchPsiClasses(annotation, GlobalSearchScope.moduleScope(module)).findAll();
+            if (applications.size() == 1) {
+                return applications.iterator().next();
+            }
+        }
+        TreeClassChooser chooser = TreeClassChooserFactory.getInstance(project).createWithInnerClassesScopeChooser(
+            "请选择项目启动类，即带有SpringBootApplication注解的类",
+            GlobalSearchScope.moduleScope(module),
+            null,
+            null
+        );
+        chooser.showDialog();
+        return chooser.getSelected();
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.LangDataKeys;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * 按上次生成快照时的属性文件重新拉取 Nacos 配置，覆盖 src/test/resources/nacos-snapshot
+ */
+public class RefreshNacosSnapshotAction extends RunJUnitTestAction {
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        Module module = e.getData(LangDataKeys.MODULE);
+        if (project == null || module == null) {
+            return;
+        }
+
+        List<String> sources = NacosSnapshotService.getInstance(project).getSnapshotSources(module);
+        if (sources == null) {
+            Messages.showMessageDialog(
+                project,
+                "当前模块还没有Nacos配置快照，请在创建测试类时选择 snapshot",
+                "Error",
+                Messages.getErrorIcon()
+            );
+            return;
+        }
+
+        List<String> snapshotFiles = createNacosSnapshot(project, module, sources);
+        if (snapshotFiles != null) {
+            TestDaemonManager.getInstance(project).notify(
+                "已刷新Nacos配置快照：" + String.join(", ", snapshotFiles), NotificationType.INFORMATION
+            );
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.debugger.DebuggerManagerEx;
+import com.intellij.debugger.engine.DebugProcessImpl;
+import com.intellij.debugger.engine.SuspendContextImpl;
+import com.intellij.debugger.engine.evaluation.EvaluateException;
+import com.intellij.debugger.engine.events.DebuggerContextCommandImpl;
+import com.intellij.debugger.impl.DebuggerContextImpl;
+import com.intellij.debugger.impl.DebuggerSession;
+import com.intellij.debugger.impl.HotSwapStatusListener;
+import com.intellij.debugger.jdi.StackFrameProxyImpl;
+import com.intellij.debugger.jdi.ThreadReferenceProxyImpl;
+import com.intellij.debugger.ui.HotSwapUI;
+import com.intellij.execution.junit.JUnitConfiguration;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.xdebugger.XDebugSession;
+import com.sun.jdi.Location;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 在正在调试的 Fast Test 会话中编译修改的文件并 HotSwap 到测试 JVM，再从测试方法的调用处重新调用被测方法，
+ * 复用已启动的 Spring 上下文。会话暂停在被测方法中时回退到测试方法后继续运行，未暂停时由重复运行的下一次调用使用新代码
+ */
+public class ReinvokeAction extends AnAction {
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        e.getPresentation().setEnabled(project != null && findSession(project) != null);
+    }
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) {
+            return;
+        }
+        DebuggerSession session = findSession(project);
+        if (session == null) {
+            TestDaemonManager.getInstance(project).notify(
+                "没有正在调试的 Fast Test 会话，请先以 Debug 方式运行测试", NotificationType.WARNING
+            );
+            return;
+        }
+        Set<String> testMethods = getTestMethods(session);
+
+        HotSwapUI.getInstance(project).reloadChangedClasses(session, true, new HotSwapStatusListener() {
+            @Override
+            public void onSuccess(List<DebuggerSession> sessions) {
+                reinvoke(project, session, testMethods);
+            }
+
+            @Override
+            public void onNothingToReload(List<DebuggerSession> sessions) {
+                reinvoke(project, session, testMethods);
+            }
+
+            @Override
+            public void onFailure(List<DebuggerSession> sessions) {
+                TestDaemonManager.getInstance(project).notify(
+                    "HotSwap 失败：新增或删除方法、字段以及修改签名无法重载到运行中的 JVM，请重新运行测试",
+                    NotificationType.ERROR
+                );
+            }
+        });
+    }
+
+    /**
+     * 优先使用当前选中的调试会话，其次任一仍在运行的 Fast Test 会话
+     */
+    private static @Nullable DebuggerSession findSession(Project project) {
+        DebuggerManagerEx debuggerManager = DebuggerManagerEx.getInstanceEx(project);
+        List<DebuggerSession> sessions = new ArrayList<>();
+        DebuggerSession current = debuggerManager.getContext().getDebuggerSession();
+        if (current != null) {
+            sessions.add(current);
+        }
+        sessions.addAll(debuggerManager.getSessions());
+        for (DebuggerSession session : sessions) {
+            if (!session.isStopped() && !getTestMethods(session).isEmpty()) {
+                return session;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 会话运行的测试方法，格式为 类全限定名.方法名
+     */
+    private static Set<String> getTestMethods(DebuggerSession session) {
+        XDebugSession xDebugSession = session.getXDebugSession();
+        Set<String> testMethods = new HashSet<>();
+        if (xDebugSession == null || !(xDebugSession.getRunProfile() instanceof JUnitConfiguration configuration)) {
+            return testMethods;
+        }
+        JUnitConfiguration.Data data = configuration.getPersistentData();
+        if (StringUtil.isNotEmpty(data.getMainClassName()) && StringUtil.isNotEmpty(data.getMethodName())) {
+            testMethods.add(data.getMainClassName() + "." + data.getMethodName());
+        }
+        for (String pattern : data.getPatterns()) {
+            testMethods.add(pattern.replace(',', '.'));
+        }
+        return testMethods;
+    }
+
+    private static void reinvoke(Project project, DebuggerSession session, Set<String> testMethods) {
+        TestDaemonManager testDaemonManager = TestDaemonManager.getInstance(project);
+        if (!session.isPaused()) {
+            testDaemonManager.notify("已重载修改的类，重复运行的下一次调用将使用新代码", NotificationType.INFORMATION);
+            return;
+        }
+        DebuggerContextImpl context = session.getContextManager().getContext();
+        DebugProcessImpl process = session.getProcess();
+        process.getManagerThread().schedule(new DebuggerContextCommandImpl(context) {
+            @Override
+            public void threadAction(@NotNull SuspendContextImpl suspendContext) {
+                ThreadReferenceProxyImpl thread = context.getThreadProxy();
+                StackFrameProxyImpl callee = null;
+                try {
+                    List<StackFrameProxyImpl> frames = thread == null ? List.of() : thread.frames();
+                    for (int i = 1; i < frames.size() && callee == null; i++) {
+                        Location location = frames.get(i).location();
+                        if (testMethods.contains(location.declaringType().name() + "." + location.method().name())) {
+                            callee = frames.get(i - 1);
+                        }
+                    }
+                    // 弹出测试方法调用的帧及其上的所有帧，继续运行时从调用处重新调用
+                    if (callee != null) {
+                        thread.popFrames(callee);
+                    }
+                } catch (EvaluateException e) {
+                    testDaemonManager.notify("回退到测试方法失败：" + e.getMessage(), NotificationType.ERROR);
+                    return;
+                }
+                session.resume();
+                testDaemonManager.notify(
+                    callee != null
+                        ? "已重载修改的类，正在从测试方法重新调用"
+                        : "已重载修改的类，当前暂停位置不在测试方法调用中，继续运行后的下一次调用将使用新代码",
+                    NotificationType.INFORMATION
+                );
+            }
+        });
+    }
+}
@@ -0,0 +1,192 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.execution.RunnerAndConfigurationSettings;
+import com.intellij.execution.junit.JUnitConfiguration;
+import com.intellij.execution.runners.ProgramRunner;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootModificationTracker;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.*;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.InheritanceUtil;
+import com.intellij.psi.util.PsiModificationTracker;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 远程客户端 Stub 模式：从测试类注入的 Bean 出发沿可达 Bean 的字段与构造器参数找出 Feign、Dubbo、Redis 与 MQ 客户端，
+ * 运行时由生成的 initializer 把这些 Bean 替换为进程内 Stub，应答取自 src/test/resources/remote-stubs；
+ * 检测结果按测试类缓存，源码或项目结构变化后失效
+ */
+@Service(Service.Level.PROJECT)
+public final class RemoteClientStubs {
+
+    public static final String FIXTURE_DIRECTORY = "remote-stubs";
+
+    private static final String STUBS_SIMPLE_NAME = "AtomTestRemoteStubs";
+
+    private static final String STUBS_CLASS = SupportSources.PACKAGE + "." + STUBS_SIMPLE_NAME;
+
+    private static final String STUBS_OPTION = "-Datom.test.stubs=";
+
+    private static final Key<CachedValue<Map<String, Set<String>>>> CLIENTS_KEY =
+        Key.create("atom.test.remote.clients");
+
+    private static final String FEIGN_CLIENT = "org.springframework.cloud.openfeign.FeignClient";
+
+    private static final Set<String> DUBBO_REFERENCES = Set.of(
+        "org.apache.dubbo.config.annotation.DubboReference",
+        "org.apache.dubbo.config.annotation.Reference",
+        "com.alibaba.dubbo.config.annotation.Reference"
+    );
+
+    private static final Set<String> CLIENT_TYPES = Set.of(
+        "org.springframework.data.redis.core.RedisOperations",
+        "org.redisson.api.RedissonClient",
+        "org.apache.rocketmq.spring.core.RocketMQTemplate",
+        "org.apache.rocketmq.client.producer.MQProducer",
+        "org.springframework.kafka.core.KafkaOperations",
+        "org.springframework.amqp.core.AmqpTemplate"
+    );
+
+    private final Project project;
+
+    public RemoteClientStubs(Project project) {
+        this.project = project;
+    }
+
+    public static RemoteClientStubs getInstance(Project project) {
+        return project.getService(RemoteClientStubs.class);
+    }
+
+    /**
+     * 测试类开启 Stub 模式时为配置加上 initializer 与需要替换的客户端类型，否则清除相关参数
+     */
+    public @Nullable ProgramRunner.Callback customize(RunnerAndConfigurationSettings settings,
+                                                      @Nullable ProgramRunner.Callback callback) {
+        if (!(settings.getConfiguration() instanceof JUnitConfiguration configuration)) {
+            return callback;
+        }
+        String vmParameters = VmParameters.initializer(configuration.getVMParameters(), STUBS_CLASS, false);
+        vmParameters = VmParameters.replace(vmParameters, STUBS_OPTION, null);
+        configuration.setVMParameters(vmParameters);
+
+        Module module = configuration.getConfigurationModule().getModule();
+        String testClassName = configuration.getPersistentData().getMainClassName();
+        if (module == null
+            || testClassName == null
+            || !FastTestSettings.getInstance(project).isRemoteStubs(testClassName)) {
+            return callback;
+        }
+
+        Map<String, Set<String>> cachedClients = CachedValuesManager.getManager(project).getCachedValue(
+            module, CLIENTS_KEY, () -> CachedValueProvider.Result.create(
+                new ConcurrentHashMap<>(),
+                PsiModificationTracker.MODIFICATION_COUNT,
+                ProjectRootModificationTracker.getInstance(project)
+            ), false
+        );
+        Set<String> clients = cachedClients.get(testClassName);
+        if (clients == null) {
+            try {
+                clients = ProgressManager.getInstance().runProcessWithProgressSynchronously(
+                    () -> ReadAction.compute(() -> detectClients(module, testClassName)),
+                    "Detecting Remote Clients",
+                    true,
+                    project
+                );
+            } catch (ProcessCanceledException e) {
+                return callback;
+            }
+            cachedClients.put(testClassName, clients);
+        }
+        if (clients.isEmpty()) {
+            TestDaemonManager.getInstance(project).notify(
+                "未在 " + testClassName + " 注入的 Bean 中发现远程客户端，本次运行未替换任何 Bean", NotificationType.WARNING
+            );
+            return callback;
+        }
+        if (!SupportSources.ensure(project, module, STUBS_SIMPLE_NAME)) {
+            return callback;
+        }
+        vmParameters = VmParameters.initializer(vmParameters, STUBS_CLASS, true);
+        configuration.setVMParameters(
+            VmParameters.replace(vmParameters, STUBS_OPTION, STUBS_OPTION + String.join(",", clients))
+        );
+        return callback;
+    }
+
+    /**
+     * 测试类中 DynamicResource 字段可达的 Bean 所依赖的远程客户端类型，需在读操作中调用
+     */
+    public Set<String> detectClients(Module module, String testClassName) {
+        JavaPsiFacade javaPsiFacade = JavaPsiFacade.getInstance(project);
+        GlobalSearchScope scope = GlobalSearchScope.moduleWithDependenciesAndLibrariesScope(module, true);
+        PsiClass testClass = javaPsiFacade.findClass(testClassName, scope);
+        if (testClass == null) {
+            return Collections.emptySet();
+        }
+
+        BeanDependencyGraph beanDependencyGraph = BeanDependencyGraph.getInstance(project);
+        Set<String> clients = new TreeSet<>();
+        for (PsiField field : testClass.getFields()) {
+            if (!field.hasAnnotation(AtomTestFrameworkService.DYNAMIC_RESOURCE)
+                || !(field.getType() instanceof PsiClassType fieldType)) {
+                continue;
+            }
+            PsiClass beanClass = fieldType.resolve();
+            if (beanClass == null) {
+                continue;
+            }
+            for (String bean : beanDependencyGraph.getReachableBeans(module, beanClass)) {
+                PsiClass reachableClass = javaPsiFacade.findClass(bean, scope);
+                if (reachableClass != null) {
+                    collectClients(reachableClass, clients);
+                }
+            }
+        }
+        return clients;
+    }
+
+    private void collectClients(PsiClass beanClass, Set<String> clients) {
+        for (PsiField field : beanClass.getAllFields()) {
+            if (field.hasModifierProperty(PsiModifier.STATIC)) {
+                continue;
+            }
+            boolean dubboReference = DUBBO_REFERENCES.stream().anyMatch(field::hasAnnotation);
+            addClient(field.getType(), dubboReference, clients);
+        }
+        for (PsiMethod constructor : beanClass.getConstructors()) {
+            for (PsiParameter parameter : constructor.getParameterList().getParameters()) {
+                addClient(parameter.getType(), false, clients);
+            }
+        }
+    }
+
+    private void addClient(PsiType type, boolean dubboReference, Set<String> clients) {
+        if (!(type instanceof PsiClassType classType)) {
+            return;
+        }
+        PsiClass psiClass = classType.resolve();
+        String qualifiedName = psiClass == null ? null : psiClass.getQualifiedName();
+        if (qualifiedName == null) {
+            return;
+        }
+        if (dubboReference
+            || psiClass.isInterface() && psiClass.hasAnnotation(FEIGN_CLIENT)
+            || CLIENT_TYPES.stream().anyMatch(clientType -> InheritanceUtil.isInheritor(psiClass, clientType))) {
+            clients.add(qualifiedName);
+        }
+    }
+}
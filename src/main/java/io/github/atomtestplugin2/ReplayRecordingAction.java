@@ -0,0 +1,186 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.execution.Location;
+import com.intellij.execution.PsiLocation;
+import com.intellij.execution.RunManager;
+import com.intellij.execution.RunnerAndConfigurationSettings;
+import com.intellij.execution.junit.JUnitConfiguration;
+import com.intellij.execution.junit.JUnitConfigurationType;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.*;
+import com.intellij.psi.codeStyle.CodeStyleManager;
+import com.intellij.psi.codeStyle.JavaCodeStyleManager;
+import com.intellij.psi.util.TypeConversionUtil;
+import com.intellij.rt.execution.junit.RepeatCount;
+
+/**
+ * 回放模式：在测试类中生成 replay 测试方法，读取录制文件中该方法的全部调用，
+ * 通过 DynamicBeanLoading 注入的 Bean 按轮次重放，统计吞吐量并与录制的返回值比对
+ */
+public class ReplayRecordingAction extends RunJUnitTestAction {
+
+    @Override
+    protected void onTestClassReady(PsiMethod method,
+                                    Project project,
+                                    PsiClass testClass,
+                                    PsiClass containingClass,
+                                    Module module) {
+        String recordingPath = RecordInvocationsAction.RECORDINGS_DIRECTORY + "/" + containingClass.getQualifiedName() + ".jsonl";
+        PsiDirectory testResourcesDirectory = getTestResourcesDirectory(module, false);
+        if (testResourcesDirectory == null
+            || testResourcesDirectory.getVirtualFile().findFileByRelativePath(recordingPath) == null) {
+            Messages.showMessageDialog(
+                project,
+                "未找到录制文件 src/test/resources/" + recordingPath + "，请先使用 Record Invocations 录制",
+                "Error",
+                Messages.getErrorIcon()
+            );
+            return;
+        }
+
+        String roundsText = Messages.showInputDialog(
+            project, "回放轮数（每轮重放全部录制的调用）:", "Replay " + method.getName(), Messages.getQuestionIcon(), "1", null
+        );
+        if (roundsText == null) {
+            return;
+        }
+        int rounds;
+        try {
+            rounds = Integer.parseInt(roundsText.trim());
+            if (rounds < 1) {
+                throw new NumberFormatException();
+            }
+        } catch (NumberFormatException ex) {
+            Messages.showMessageDialog(project, "回放轮数需为正整数", "Error", Messages.getErrorIcon());
+            return;
+        }
+
+        String replayMethodName = "replay" + capitalize(method.getName());
+        String methodText = buildReplayMethod(replayMethodName, method, containingClass, recordingPath, rounds);
+        PsiMethod replayMethod = WriteCommandAction.runWriteCommandAction(project, (Computable<PsiMethod>) () -> {
+            // 每次按新的轮数重新生成
+            for (PsiMethod existMethod : testClass.findMethodsByName(replayMethodName, false)) {
+                existMethod.delete();
+            }
+            PsiElement addedMethod = testClass.add(
+                JavaPsiFacade.getElementFactory(project).createMethodFromText(methodText, testClass)
+            );
+            addedMethod = JavaCodeStyleManager.getInstance(project).shortenClassReferences(addedMethod);
+            return (PsiMethod) CodeStyleManager.getInstance(project).reformat(addedMethod);
+        });
+        commitDocment(testClass);
+
+        RunnerAndConfigurationSettings configurationSettings = RunManager.getInstance(project).createConfiguration(
+            replayMethodName, JUnitConfigurationType.getInstance().getConfigurationFactories()[0]
+        );
+        JUnitConfiguration configuration = (JUnitConfiguration) configurationSettings.getConfiguration();
+        configuration.setModule(module);
+        Location<PsiMethod> methodLocation = PsiLocation.fromPsiElement(replayMethod);
+        configuration.beMethodConfiguration(methodLocation);
+        configuration.setRepeatMode(RepeatCount.ONCE);
+        LaunchProfiles.getInstance(project).apply(configuration, module);
+        runConfiguration(configurationSettings, project, LaunchMode.RUN, null);
+    }
+
+    private String buildReplayMethod(String replayMethodName,
+                                     PsiMethod method,
+                                     PsiClass containingClass,
+                                     String recordingPath,
+                                     int rounds) {
+        PsiParameter[] parameters = method.getParameterList().getParameters();
+        String signature = signature(method);
+        boolean returnsValue = !PsiTypes.voidType().equals(method.getReturnType());
+
+        StringBuilder text = new StringBuilder();
+        text.append("@org.junit.Test\npublic void ").append(replayMethodName).append("() throws Exception {\n")
+            .append("int rounds = ").append(rounds).append(";\n")
+            .append("java.util.List<Object[]> inputs = new java.util.ArrayList<>();\n")
+            .append("java.util.List<String> expected = new java.util.ArrayList<>();\n")
+            .append("try (java.io.BufferedReader reader = new java.io.BufferedReader(new java.io.InputStreamReader(")
+            .append("getClass().getResourceAsStream(\"/").append(recordingPath)
+            .append("\"), java.nio.charset.StandardCharsets.UTF_8))) {\n")
+            .append("for (String line = reader.readLine(); line != null; line = reader.readLine()) {\n")
+            .append("com.alibaba.fastjson2.JSONObject record = com.alibaba.fastjson2.JSON.parseObject(line);\n")
+            .append("if (!\"").append(StringUtil.escapeStringCharacters(signature))
+            .append("\".equals(record.getString(\"signature\")) || record.containsKey(\"exception\")) {\ncontinue;\n}\n")
+            .append("com.alibaba.fastjson2.JSONArray args = record.getJSONArray(\"args\");\n")
+            .append("inputs.add(new Object[] {");
+        for (int i = 0; i < parameters.length; i++) {
+            text.append(i > 0 ? ", " : "").append(parseExpression(parameters[i].getType(), "args.getString(" + i + ")"));
+        }
+        text.append("});\n")
+            .append("expected.add(record.getString(\"result\"));\n")
+            .append("}\n}\n")
+            .append("org.junit.Assert.assertFalse(\"没有录制到 ").append(StringUtil.escapeStringCharacters(signature))
+            .append(" 的调用\", inputs.isEmpty());\n");
+
+        // 计时期间只保存首轮返回值，结束后再序列化比对
+        text.append("Object[] results = new Object[inputs.size()];\n")
+            .append("long start = System.nanoTime();\n")
+            .append("for (int round = 0; round < rounds; round++) {\n")
+            .append("for (int i = 0; i < inputs.size(); i++) {\n")
+            .append("Object[] input = inputs.get(i);\n")
+            .append(returnsValue ? "Object result = " : "")
+            .append(toLowerCaseFirstLetter(containingClass.getName())).append(".").append(method.getName()).append("(");
+        for (int i = 0; i < parameters.length; i++) {
+            text.append(i > 0 ? ", " : "")
+                .append("(").append(erasedType(parameters[i].getType())).append(") input[").append(i).append("]");
+        }
+        text.append(");\n");
+        if (returnsValue) {
+            text.append("if (round == 0) {\nresults[i] = result;\n}\n");
+        }
+        text.append("}\n}\n")
+            .append("long elapsedNanos = System.nanoTime() - start;\n")
+            .append("int differences = 0;\n")
+            .append("for (int i = 0; i < inputs.size(); i++) {\n")
+            .append("if (expected.get(i) != null && !expected.get(i).equals(")
+            .append("com.alibaba.fastjson2.JSON.toJSONString(results[i]))) {\n")
+            .append("differences++;\n")
+            .append("System.out.println(\"[atom-test] result differs for args \" + java.util.Arrays.deepToString(inputs.get(i)));\n")
+            .append("}\n}\n")
+            .append("long invocations = (long) inputs.size() * rounds;\n")
+            .append("System.out.printf(\"[atom-test] replayed %d invocations in %d ms (%.1f ops/s), %d results differ%n\", ")
+            .append("invocations, elapsedNanos / 1_000_000, invocations * 1e9 / Math.max(elapsedNanos, 1), differences);\n")
+            .append("}");
+        return text.toString();
+    }
+
+    /**
+     * 与录制端一致的方法签名：方法名加擦除后的参数类型全限定名，可变参数按数组处理
+     */
+    private static String signature(PsiMethod method) {
+        StringBuilder signature = new StringBuilder(method.getName()).append('(');
+        PsiParameter[] parameters = method.getParameterList().getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            signature.append(i > 0 ? "," : "").append(erasedType(parameters[i].getType()));
+        }
+        return signature.append(')').toString();
+    }
+
+    private static String erasedType(PsiType type) {
+        if (type instanceof PsiEllipsisType ellipsisType) {
+            type = ellipsisType.toArrayType();
+        }
+        return TypeConversionUtil.erasure(type).getCanonicalText();
+    }
+
+    /**
+     * 带泛型实参的参数用 TypeReference 保留完整类型，其他类型按擦除后的类解析，基本类型解析为包装类
+     */
+    private static String parseExpression(PsiType type, String jsonExpression) {
+        if (type instanceof PsiEllipsisType ellipsisType) {
+            type = ellipsisType.toArrayType();
+        }
+        if (type instanceof PsiClassType classType && classType.hasParameters()) {
+            return "com.alibaba.fastjson2.JSON.parseObject(" + jsonExpression
+                + ", new com.alibaba.fastjson2.TypeReference<" + type.getCanonicalText() + ">() {}.getType())";
+        }
+        return "com.alibaba.fastjson2.JSON.parseObject(" + jsonExpression + ", " + erasedType(type) + ".class)";
+    }
+}
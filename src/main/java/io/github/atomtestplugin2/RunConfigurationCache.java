@@ -0,0 +1,75 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.execution.RunnerAndConfigurationSettings;
+import com.intellij.execution.junit.JUnitConfiguration;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiMethod;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 按测试方法缓存 JUnit 运行配置，超过上限时按最近最少使用淘汰；
+ * 配置不注册到 RunManager，既不受临时配置数量上限的淘汰，也不会改变用户当前选中的运行配置
+ */
+@Service(Service.Level.PROJECT)
+public final class RunConfigurationCache {
+
+    private static final int MAX_SIZE = 20;
+
+    private final Map<String, RunnerAndConfigurationSettings> cache =
+        new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RunnerAndConfigurationSettings> eldest) {
+                return size() > MAX_SIZE;
+            }
+        };
+
+    public static RunConfigurationCache getInstance(Project project) {
+        return project.getService(RunConfigurationCache.class);
+    }
+
+    /**
+     * 取缓存的配置，配置与测试方法、模块不再匹配时视为过期并返回 null
+     */
+    public synchronized @Nullable RunnerAndConfigurationSettings get(PsiMethod testMethod, Module module) {
+        String key = getKey(testMethod, module);
+        RunnerAndConfigurationSettings settings = cache.get(key);
+        if (settings == null) {
+            return null;
+        }
+        if (!isUpToDate(settings, testMethod, module)) {
+            cache.remove(key);
+            return null;
+        }
+        return settings;
+    }
+
+    public synchronized void put(PsiMethod testMethod, Module module, RunnerAndConfigurationSettings settings) {
+        cache.put(getKey(testMethod, module), settings);
+    }
+
+    private boolean isUpToDate(RunnerAndConfigurationSettings settings, PsiMethod testMethod, Module module) {
+        if (!(settings.getConfiguration() instanceof JUnitConfiguration configuration)) {
+            return false;
+        }
+        PsiClass testClass = testMethod.getContainingClass();
+        JUnitConfiguration.Data data = configuration.getPersistentData();
+        return module.equals(configuration.getConfigurationModule().getModule())
+            && JUnitConfiguration.TEST_METHOD.equals(data.TEST_OBJECT)
+            && testMethod.getName().equals(data.getMethodName())
+            && testClass != null
+            && Objects.equals(testClass.getQualifiedName(), data.getMainClassName());
+    }
+
+    private static String getKey(PsiMethod testMethod, Module module) {
+        PsiClass testClass = testMethod.getContainingClass();
+        return module.getName() + ":" + (testClass == null ? "" : testClass.getQualifiedName()) + "#"
+            + testMethod.getName();
+    }
+}
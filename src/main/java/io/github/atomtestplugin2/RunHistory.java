@@ -0,0 +1,446 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.execution.RunnerAndConfigurationSettings;
+import com.intellij.execution.junit.JUnitConfiguration;
+import com.intellij.execution.process.ProcessEvent;
+import com.intellij.execution.process.ProcessHandler;
+import com.intellij.execution.process.ProcessListener;
+import com.intellij.execution.runners.ProgramRunner;
+import com.intellij.execution.testframework.AbstractTestProxy;
+import com.intellij.execution.testframework.sm.runner.SMTRunnerEventsAdapter;
+import com.intellij.execution.testframework.sm.runner.SMTRunnerEventsListener;
+import com.intellij.execution.testframework.sm.runner.SMTestProxy;
+import com.intellij.execution.ui.RunContentDescriptor;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.components.*;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.IndexNotReadyException;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.*;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.messages.MessageBusConnection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 按被测方法保存每次运行的上下文启动耗时与调用耗时，并在调用耗时超过最近基线的阈值时提醒。
+ * 启动耗时为进程启动到第一个测试方法开始，调用耗时为测试方法本身的耗时；Debug 运行会停在断点，只记录启动耗时
+ */
+@Service(Service.Level.PROJECT)
+@State(name = "AtomTestRunHistory", storages = @Storage(StoragePathMacros.CACHE_FILE))
+public final class RunHistory implements PersistentStateComponent<RunHistory.State> {
+
+    public static final int DEFAULT_REGRESSION_THRESHOLD = 20;
+
+    /**
+     * 每个方法保留的运行记录数
+     */
+    private static final int MAX_ENTRIES_PER_METHOD = 50;
+
+    /**
+     * 基线取最近几次正常运行调用耗时的中位数
+     */
+    private static final int BASELINE_RUNS = 5;
+
+    private static final int MIN_BASELINE_RUNS = 3;
+
+    /**
+     * 低于该差值的波动不视为退化，避免毫秒级方法误报
+     */
+    private static final long MIN_REGRESSION_MILLIS = 5;
+
+    private static final String LOCATION_PROTOCOL = "java:test://";
+
+    private final Project project;
+
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    private State state = new State();
+
+    public RunHistory(Project project) {
+        this.project = project;
+    }
+
+    public static RunHistory getInstance(Project project) {
+        return project.getService(RunHistory.class);
+    }
+
+    public static class State {
+
+        public List<RunEntry> entries = new ArrayList<>();
+    }
+
+    public static class RunEntry {
+
+        /**
+         * 被测方法签名，格式同 {@link TestMethodIndex#signature(PsiMethod)}
+         */
+        public String method;
+
+        public String testMethod;
+
+        public long timestamp;
+
+        public String launchMode;
+
+        public long startupMillis = -1;
+
+        public long invocationMillis = -1;
+
+        public boolean passed;
+
+        public String vmOptions;
+
+        public String revision;
+    }
+
+    @Override
+    public synchronized @NotNull State getState() {
+        return state;
+    }
+
+    @Override
+    public synchronized void loadState(@NotNull State state) {
+        this.state = state;
+    }
+
+    /**
+     * 有运行记录的被测方法，按最近运行时间倒序
+     */
+    public synchronized List<String> getMethods() {
+        Map<String, Long> lastRuns = new HashMap<>();
+        for (RunEntry entry : state.entries) {
+            lastRuns.merge(entry.method, entry.timestamp, Math::max);
+        }
+        List<String> methods = new ArrayList<>(lastRuns.keySet());
+        methods.sort(Comparator.comparing(lastRuns::get, Comparator.reverseOrder()));
+        return methods;
+    }
+
+    /**
+     * 方法的运行记录，按时间顺序
+     */
+    public synchronized List<RunEntry> getEntries(String method) {
+        List<RunEntry> entries = new ArrayList<>();
+        for (RunEntry entry : state.entries) {
+            if (entry.method.equals(method)) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * entries 中最后一条之前最近几次正常 Run 的调用耗时中位数，次数不足时返回 -1
+     */
+    public static long baseline(List<RunEntry> entries) {
+        List<Long> recent = new ArrayList<>();
+        for (int i = entries.size() - 2; i >= 0 && recent.size() < BASELINE_RUNS; i--) {
+            RunEntry entry = entries.get(i);
+            if (entry.passed && entry.invocationMillis >= 0) {
+                recent.add(entry.invocationMillis);
+            }
+        }
+        if (recent.size() < MIN_BASELINE_RUNS) {
+            return -1;
+        }
+        Collections.sort(recent);
+        return recent.get(recent.size() / 2);
+    }
+
+    /**
+     * 去掉签名中类的包名，便于展示
+     */
+    public static String displayName(String method) {
+        int separator = method.indexOf('#');
+        return separator < 0
+            ? method
+            : StringUtil.getShortName(method.substring(0, separator)) + method.substring(separator);
+    }
+
+    /**
+     * 监听器随 parentDisposable 一起移除
+     */
+    public void addListener(Runnable listener, Disposable parentDisposable) {
+        listeners.add(listener);
+        Disposer.register(parentDisposable, () -> listeners.remove(listener));
+    }
+
+    /**
+     * 返回在进程启动后按测试方法记录耗时的回调，需在其他参数调整之后调用以记录最终的 VM 参数
+     */
+    public @Nullable ProgramRunner.Callback customize(RunnerAndConfigurationSettings settings,
+                                                      LaunchMode launchMode,
+                                                      @Nullable ProgramRunner.Callback callback) {
+        if (!(settings.getConfiguration() instanceof JUnitConfiguration configuration)) {
+            return callback;
+        }
+        Module module = configuration.getConfigurationModule().getModule();
+        if (module == null) {
+            return callback;
+        }
+        Map<String, String> testedMethods;
+        try {
+            testedMethods = ReadAction.compute(() -> findTestedMethods(module, configuration.getPersistentData()));
+        } catch (IndexNotReadyException e) {
+            return callback;
+        }
+        if (testedMethods.isEmpty()) {
+            return callback;
+        }
+        RunEntry template = new RunEntry();
+        template.launchMode = launchMode.name();
+        template.vmOptions = StringUtil.notNullize(configuration.getVMParameters()).trim();
+        template.revision = readRevision(project.getBasePath());
+        return new ProgramRunner.Callback() {
+            @Override
+            public void processStarted(RunContentDescriptor descriptor) {
+                if (callback != null) {
+                    callback.processStarted(descriptor);
+                }
+                ProcessHandler processHandler = descriptor == null ? null : descriptor.getProcessHandler();
+                if (processHandler != null) {
+                    attach(processHandler, testedMethods, template, System.nanoTime());
+                }
+            }
+        };
+    }
+
+    /**
+     * 测试类名.测试方法名 -> 测试方法中经 DynamicResource 字段调用的被测方法签名
+     */
+    private Map<String, String> findTestedMethods(Module module, JUnitConfiguration.Data data) {
+        Map<String, Set<String>> testMethods = new LinkedHashMap<>();
+        String mainClassName = data.getMainClassName();
+        if (StringUtil.isNotEmpty(mainClassName)) {
+            Set<String> names = testMethods.computeIfAbsent(mainClassName, name -> new HashSet<>());
+            if (StringUtil.isNotEmpty(data.getMethodName())) {
+                names.add(data.getMethodName());
+            }
+        }
+        for (String pattern : data.getPatterns()) {
+            int separator = pattern.indexOf(',');
+            if (separator > 0) {
+                testMethods.computeIfAbsent(pattern.substring(0, separator), name -> new HashSet<>())
+                    .add(pattern.substring(separator + 1));
+            }
+        }
+
+        Map<String, String> testedMethods = new HashMap<>();
+        GlobalSearchScope scope = GlobalSearchScope.moduleWithDependenciesAndLibrariesScope(module, true);
+        testMethods.forEach((testClassName, names) -> {
+            PsiClass testClass = JavaPsiFacade.getInstance(project).findClass(testClassName, scope);
+            if (testClass == null) {
+                return;
+            }
+            for (PsiMethod testMethod : testClass.getMethods()) {
+                // 没有指定方法时整个测试类都会运行
+                if (!names.isEmpty() && !names.contains(testMethod.getName())) {
+                    continue;
+                }
+                String tested = findTestedMethod(testMethod);
+                if (tested != null) {
+                    testedMethods.put(testClassName + "." + testMethod.getName(), tested);
+                }
+            }
+        });
+        return testedMethods;
+    }
+
+    private static @Nullable String findTestedMethod(PsiMethod testMethod) {
+        PsiCodeBlock body = testMethod.getBody();
+        if (body == null) {
+            return null;
+        }
+        for (PsiMethodCallExpression call : PsiTreeUtil.findChildrenOfType(body, PsiMethodCallExpression.class)) {
+            PsiExpression qualifier = call.getMethodExpression().getQualifierExpression();
+            if (qualifier instanceof PsiReferenceExpression reference
+                && reference.resolve() instanceof PsiField field
+                && field.hasAnnotation(AtomTestFrameworkService.DYNAMIC_RESOURCE)) {
+                PsiMethod method = call.resolveMethod();
+                String signature = method == null ? null : TestMethodIndex.signature(method);
+                if (signature != null) {
+                    return signature;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void attach(ProcessHandler processHandler,
+                        Map<String, String> testedMethods,
+                        RunEntry template,
+                        long startedAt) {
+        // 重复运行时只记录每个测试方法的第一次调用
+        Set<String> recorded = new HashSet<>();
+        long[] startupMillis = {-1};
+        MessageBusConnection connection = project.getMessageBus().connect();
+        connection.subscribe(SMTRunnerEventsListener.TEST_STATUS, new SMTRunnerEventsAdapter() {
+            @Override
+            public void onTestStarted(@NotNull SMTestProxy test) {
+                if (belongsTo(test, processHandler) && startupMillis[0] < 0) {
+                    startupMillis[0] = (System.nanoTime() - startedAt) / 1_000_000;
+                }
+            }
+
+            @Override
+            public void onTestFinished(@NotNull SMTestProxy test) {
+                if (!belongsTo(test, processHandler)) {
+                    return;
+                }
+                String testName = getTestName(test);
+                String method = testName == null ? null : testedMethods.get(testName);
+                if (method == null || !recorded.add(testName)) {
+                    return;
+                }
+                RunEntry entry = new RunEntry();
+                entry.method = method;
+                entry.testMethod = testName;
+                entry.timestamp = System.currentTimeMillis();
+                entry.launchMode = template.launchMode;
+                // 上下文在第一个测试方法之前启动，同一进程中之后的方法复用上下文
+                entry.startupMillis = recorded.size() == 1 ? startupMillis[0] : -1;
+                Long duration = test.getDuration();
+                entry.passed = test.isPassed();
+                entry.invocationMillis = LaunchMode.RUN.name().equals(template.launchMode) && duration != null
+                    ? duration
+                    : -1;
+                entry.vmOptions = template.vmOptions;
+                entry.revision = template.revision;
+                add(entry);
+            }
+        });
+        processHandler.addProcessListener(new ProcessListener() {
+            @Override
+            public void processTerminated(@NotNull ProcessEvent event) {
+                connection.disconnect();
+            }
+        });
+    }
+
+    private static boolean belongsTo(SMTestProxy test, ProcessHandler processHandler) {
+        AbstractTestProxy root = test;
+        while (root.getParent() != null) {
+            root = root.getParent();
+        }
+        return root instanceof SMTestProxy.SMRootTestProxy rootProxy && rootProxy.getHandler() == processHandler;
+    }
+
+    /**
+     * 从 java:test://包名.类名/方法名 形式的位置中取出 类名.方法名
+     */
+    private static @Nullable String getTestName(SMTestProxy test) {
+        String locationUrl = test.getLocationUrl();
+        if (locationUrl == null || !locationUrl.startsWith(LOCATION_PROTOCOL)) {
+            return null;
+        }
+        String location = locationUrl.substring(LOCATION_PROTOCOL.length());
+        int separator = location.lastIndexOf('/');
+        return separator < 0 ? null : location.substring(0, separator) + "." + location.substring(separator + 1);
+    }
+
+    private void add(RunEntry entry) {
+        List<RunEntry> entries;
+        synchronized (this) {
+            state.entries.add(entry);
+            entries = getEntries(entry.method);
+            for (int i = 0; i < entries.size() - MAX_ENTRIES_PER_METHOD; i++) {
+                state.entries.remove(entries.get(i));
+            }
+        }
+        checkRegression(entry, entries);
+        ApplicationManager.getApplication().invokeLater(
+            () -> listeners.forEach(Runnable::run), project.getDisposed()
+        );
+    }
+
+    private void checkRegression(RunEntry entry, List<RunEntry> entries) {
+        long baseline = baseline(entries);
+        if (!entry.passed || entry.invocationMillis < 0 || baseline < 0) {
+            return;
+        }
+        int threshold = FastTestSettings.getInstance(project).getRegressionThreshold();
+        long increase = entry.invocationMillis - baseline;
+        if (increase < MIN_REGRESSION_MILLIS || increase * 100 <= baseline * threshold) {
+            return;
+        }
+        StringBuilder content = new StringBuilder(String.format(
+            "%s 调用耗时 %d ms，比最近运行的中位数 %d ms 慢 %d%%（阈值 %d%%）",
+            displayName(entry.method),
+            entry.invocationMillis,
+            baseline,
+            baseline == 0 ? 100 : increase * 100 / baseline,
+            threshold
+        ));
+        if (entry.revision != null) {
+            content.append("<br/>代码版本 ").append(entry.revision);
+        }
+        RunEntry previous = entries.size() < 2 ? null : entries.get(entries.size() - 2);
+        if (previous != null && !Objects.equals(previous.vmOptions, entry.vmOptions)) {
+            content.append("<br/>JVM 参数与上次运行不同");
+        }
+        TestDaemonManager.getInstance(project).notify(content.toString(), NotificationType.WARNING);
+    }
+
+    /**
+     * 读取 .git 中 HEAD 指向的提交，不依赖 Git 插件；不在 Git 仓库中时返回 null
+     */
+    private static @Nullable String readRevision(@Nullable String basePath) {
+        Path directory = basePath == null ? null : Paths.get(basePath);
+        while (directory != null && !Files.exists(directory.resolve(".git"))) {
+            directory = directory.getParent();
+        }
+        if (directory == null) {
+            return null;
+        }
+        try {
+            Path gitDirectory = directory.resolve(".git");
+            if (Files.isRegularFile(gitDirectory)) {
+                // 工作树中的 .git 是指向实际目录的文件
+                String pointer = Files.readString(gitDirectory, StandardCharsets.UTF_8).trim();
+                if (!pointer.startsWith("gitdir:")) {
+                    return null;
+                }
+                gitDirectory = directory.resolve(pointer.substring("gitdir:".length()).trim());
+            }
+            String head = Files.readString(gitDirectory.resolve("HEAD"), StandardCharsets.UTF_8).trim();
+            if (!head.startsWith("ref:")) {
+                return abbreviate(head);
+            }
+            String ref = head.substring("ref:".length()).trim();
+            Path refFile = gitDirectory.resolve(ref);
+            if (Files.isRegularFile(refFile)) {
+                return abbreviate(Files.readString(refFile, StandardCharsets.UTF_8).trim());
+            }
+            Path packedRefs = gitDirectory.resolve("packed-refs");
+            if (Files.isRegularFile(packedRefs)) {
+                for (String line : Files.readAllLines(packedRefs, StandardCharsets.UTF_8)) {
+                    if (line.endsWith(" " + ref)) {
+                        return abbreviate(line.substring(0, line.indexOf(' ')));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return null;
+    }
+
+    private static String abbreviate(String hash) {
+        return hash.length() > 10 ? hash.substring(0, 10) : hash;
+    }
+}
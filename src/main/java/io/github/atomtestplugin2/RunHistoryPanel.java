@@ -0,0 +1,202 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.project.Project;
+import com.intellij.ui.JBColor;
+import com.intellij.ui.JBSplitter;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import com.intellij.util.ui.JBUI;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 运行历史：左侧为有记录的被测方法，右侧为所选方法启动耗时与调用耗时的趋势图及每次运行的明细，耗时单位为毫秒
+ */
+public class RunHistoryPanel extends JPanel implements Disposable {
+
+    private final RunHistory runHistory;
+
+    private final List<String> methods = new ArrayList<>();
+
+    private final DefaultTableModel methodTableModel =
+        new DefaultTableModel(new String[]{"Method", "Runs", "Invocation", "Baseline"}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+
+    private final DefaultTableModel entryTableModel = new DefaultTableModel(
+        new String[]{"Time", "Mode", "Startup", "Invocation", "Passed", "Revision", "JVM Options"}, 0
+    ) {
+        @Override
+        public boolean isCellEditable(int row, int column) {
+            return false;
+        }
+    };
+
+    private final JBTable methodTable = new JBTable(methodTableModel);
+
+    private final TrendChart trendChart = new TrendChart();
+
+    public RunHistoryPanel(Project project) {
+        super(new BorderLayout());
+        this.runHistory = RunHistory.getInstance(project);
+
+        methodTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        methodTable.getSelectionModel().addListSelectionListener(event -> {
+            if (!event.getValueIsAdjusting()) {
+                showSelected();
+            }
+        });
+
+        JBSplitter detailSplitter = new JBSplitter(true, 0.5f);
+        detailSplitter.setFirstComponent(trendChart);
+        detailSplitter.setSecondComponent(new JBScrollPane(new JBTable(entryTableModel)));
+        JBSplitter splitter = new JBSplitter(false, 0.35f);
+        splitter.setFirstComponent(new JBScrollPane(methodTable));
+        splitter.setSecondComponent(detailSplitter);
+        add(splitter, BorderLayout.CENTER);
+
+        runHistory.addListener(this::refresh, this);
+        refresh();
+    }
+
+    @Override
+    public void dispose() {
+        // 服务中的监听器以本面板为父 Disposable 注册，随工具窗口内容一起移除
+    }
+
+    private void refresh() {
+        int selectedRow = methodTable.getSelectedRow();
+        String selected = selectedRow < 0 ? null : methods.get(selectedRow);
+
+        methods.clear();
+        methods.addAll(runHistory.getMethods());
+        methodTableModel.setRowCount(0);
+        for (String method : methods) {
+            List<RunHistory.RunEntry> entries = runHistory.getEntries(method);
+            long baseline = RunHistory.baseline(entries);
+            methodTableModel.addRow(new Object[]{
+                RunHistory.displayName(method),
+                entries.size(),
+                toText(entries.get(entries.size() - 1).invocationMillis),
+                toText(baseline)
+            });
+        }
+        // 保持原选择，没有选择时选中最近运行的方法
+        int index = selected == null ? 0 : methods.indexOf(selected);
+        if (index >= 0 && index < methods.size()) {
+            methodTable.setRowSelectionInterval(index, index);
+        }
+        showSelected();
+    }
+
+    private void showSelected() {
+        int selectedRow = methodTable.getSelectedRow();
+        List<RunHistory.RunEntry> entries = selectedRow < 0 || selectedRow >= methods.size()
+            ? Collections.emptyList()
+            : runHistory.getEntries(methods.get(selectedRow));
+
+        entryTableModel.setRowCount(0);
+        SimpleDateFormat timeFormat = new SimpleDateFormat("MM-dd HH:mm:ss");
+        for (RunHistory.RunEntry entry : entries) {
+            entryTableModel.insertRow(0, new Object[]{
+                timeFormat.format(new Date(entry.timestamp)),
+                entry.launchMode,
+                toText(entry.startupMillis),
+                toText(entry.invocationMillis),
+                entry.passed ? "yes" : "no",
+                entry.revision == null ? "" : entry.revision,
+                entry.vmOptions
+            });
+        }
+        trendChart.setEntries(entries);
+    }
+
+    private static String toText(long millis) {
+        return millis < 0 ? "n/a" : String.valueOf(millis);
+    }
+
+    /**
+     * 两条折线分别为调用耗时与启动耗时，各自按最大值缩放，缺失的点跳过
+     */
+    private static class TrendChart extends JComponent {
+
+        private static final int PADDING = 24;
+
+        private static final Color INVOCATION_COLOR = new JBColor(new Color(0xD9534F), new Color(0xE06C75));
+
+        private static final Color STARTUP_COLOR = new JBColor(new Color(0x337AB7), new Color(0x61AFEF));
+
+        private List<RunHistory.RunEntry> entries = Collections.emptyList();
+
+        void setEntries(List<RunHistory.RunEntry> entries) {
+            this.entries = entries;
+            repaint();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            int padding = JBUI.scale(PADDING);
+            if (entries.size() < 2 || getWidth() <= padding * 2 || getHeight() <= padding * 2) {
+                return;
+            }
+            FontMetrics metrics = g.getFontMetrics();
+            long maxInvocation = 1;
+            long maxStartup = 1;
+            for (RunHistory.RunEntry entry : entries) {
+                maxInvocation = Math.max(maxInvocation, entry.invocationMillis);
+                maxStartup = Math.max(maxStartup, entry.startupMillis);
+            }
+            g.setColor(JBColor.border());
+            g.drawLine(padding, getHeight() - padding, getWidth() - padding, getHeight() - padding);
+
+            Graphics2D graphics = (Graphics2D) g;
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            drawLine(graphics, padding, maxInvocation, true);
+            drawLine(graphics, padding, maxStartup, false);
+
+            int baseline = padding - metrics.getDescent() - JBUI.scale(4);
+            String invocationLabel = "Invocation (max " + maxInvocation + " ms)";
+            g.setColor(INVOCATION_COLOR);
+            g.drawString(invocationLabel, padding, baseline);
+            g.setColor(STARTUP_COLOR);
+            g.drawString("Startup (max " + maxStartup + " ms)",
+                padding + metrics.stringWidth(invocationLabel) + JBUI.scale(16), baseline);
+        }
+
+        private void drawLine(Graphics2D graphics, int padding, long max, boolean invocation) {
+            graphics.setColor(invocation ? INVOCATION_COLOR : STARTUP_COLOR);
+            double xStep = (double) (getWidth() - padding * 2) / (entries.size() - 1);
+            int height = getHeight() - padding * 2;
+            int radius = JBUI.scale(2);
+            Point previous = null;
+            for (int i = 0; i < entries.size(); i++) {
+                RunHistory.RunEntry entry = entries.get(i);
+                long millis = invocation ? entry.invocationMillis : entry.startupMillis;
+                if (millis < 0) {
+                    continue;
+                }
+                Point point = new Point(
+                    padding + (int) (i * xStep),
+                    getHeight() - padding - (int) (millis * height / max)
+                );
+                if (previous != null) {
+                    graphics.drawLine(previous.x, previous.y, point.x, point.y);
+                }
+                graphics.fillOval(point.x - radius, point.y - radius, radius * 2, radius * 2);
+                previous = point;
+            }
+        }
+    }
+}
@@ -2,18 +2,26 @@ package io.github.atomtestplugin2;
 
 import com.intellij.debugger.ui.breakpoints.JavaLineBreakpointType;
 import com.intellij.execution.*;
-import com.intellij.execution.executors.DefaultDebugExecutor;
+import com.intellij.execution.application.ApplicationConfiguration;
+import com.intellij.execution.application.ApplicationConfigurationType;
 import com.intellij.execution.junit.JUnitConfiguration;
 import com.intellij.execution.junit.JUnitConfigurationType;
+import com.intellij.execution.process.ProcessEvent;
+import com.intellij.execution.process.ProcessHandler;
+import com.intellij.execution.process.ProcessListener;
 import com.intellij.execution.runners.ExecutionEnvironment;
 import com.intellij.execution.runners.ExecutionEnvironmentBuilder;
 import com.intellij.execution.runners.ProgramRunner;
+import com.intellij.execution.ui.RunContentDescriptor;
 import com.intellij.ide.util.TreeClassChooser;
 import com.intellij.ide.util.TreeClassChooserFactory;
+import com.intellij.notification.NotificationType;
 import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.actionSystem.LangDataKeys;
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.command.WriteCommandAction;
 import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.editor.Editor;
@@ -22,26 +30,42 @@ import com.intellij.openapi.fileChooser.FileChooserDescriptor;
 import com.intellij.openapi.fileChooser.FileChooserDescriptorFactory;
 import com.intellij.openapi.fileEditor.FileEditorManager;
 import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleUtilCore;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.impl.BackgroundableProcessIndicator;
+import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.roots.ModuleRootManager;
+import com.intellij.openapi.ui.ComboBox;
 import com.intellij.openapi.ui.DialogBuilder;
 import com.intellij.openapi.ui.DialogWrapper;
 import com.intellij.openapi.ui.Messages;
 import com.intellij.openapi.util.Computable;
-import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.openapi.vfs.VfsUtilCore;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.*;
 import com.intellij.psi.codeStyle.CodeStyleManager;
+import com.intellij.psi.codeStyle.JavaCodeStyleManager;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.util.PsiUtil;
+import com.intellij.psi.util.TypeConversionUtil;
 import com.intellij.rt.execution.junit.RepeatCount;
 import com.intellij.ui.JBColor;
+import com.intellij.ui.components.JBCheckBox;
 import com.intellij.ui.components.JBLabel;
 import com.intellij.ui.components.JBScrollPane;
 import com.intellij.ui.components.JBTextField;
 import com.intellij.uiDesigner.core.GridConstraints;
 import com.intellij.uiDesigner.core.GridLayoutManager;
 import com.intellij.util.IncorrectOperationException;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.execution.ParametersListUtil;
 import com.intellij.util.ui.JBUI;
 import com.intellij.xdebugger.XDebuggerManager;
 import com.intellij.xdebugger.XDebuggerUtil;
@@ -57,11 +81,25 @@ import java.awt.*;
 import java.io.IOException;
 import java.util.List;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * @author zhang kangkang
  */
 public class RunJUnitTestAction extends AnAction {
+
+    private static final String NACOS_SNAPSHOT = "snapshot";
+
+    /**
+     * 参数输入以此前缀开头时表示引用 src/test/resources 下已有的 fixture 文件
+     */
+    protected static final String FIXTURE_PREFIX = "@fixture:";
+
+    /**
+     * 超过该长度的 JSON 参数写入 fixture 文件，避免超出常量池字符串长度限制并拖慢测试类编译
+     */
+    private static final int FIXTURE_THRESHOLD = 16 * 1024;
+
     @Override
     public void actionPerformed(AnActionEvent e) {
 
@@ -110,11 +148,110 @@ public class RunJUnitTestAction extends AnAction {
             return;
         }
 
-        JavaPsiFacade javaPsiFacade = JavaPsiFacade.getInstance(project);
-        PsiClass dynamicBeanLoadingClass = javaPsiFacade.findClass(
-            "io.github.atom.test.annonation.DynamicBeanLoading",
-            GlobalSearchScope.allScope(project)
+        resolveTestClass(
+            project, method, module, containingClass,
+            testClass -> onTestClassReady(method, project, testClass, containingClass, module)
         );
+    }
+
+    /**
+     * 多选时取选中的 public 方法，选中类时取该类声明的全部 public 实例方法
+     */
+    protected List<PsiMethod> getSelectedMethods(AnActionEvent e) {
+        List<PsiElement> elements = new ArrayList<>();
+        PsiElement[] selectedElements = e.getData(LangDataKeys.PSI_ELEMENT_ARRAY);
+        if (selectedElements != null) {
+            elements.addAll(Arrays.asList(selectedElements));
+        }
+        PsiElement selectedElement = e.getData(LangDataKeys.PSI_ELEMENT);
+        if (elements.isEmpty() && selectedElement != null) {
+            elements.add(selectedElement);
+        }
+
+        Set<PsiMethod> methods = new LinkedHashSet<>();
+        for (PsiElement element : elements) {
+            if (element instanceof PsiMethod method) {
+                methods.add(method);
+            } else if (element instanceof PsiClass psiClass) {
+                methods.addAll(Arrays.asList(psiClass.getMethods()));
+            }
+        }
+        methods.removeIf(method -> method.isConstructor()
+            || !method.hasModifierProperty(PsiModifier.PUBLIC)
+            || method.hasModifierProperty(PsiModifier.STATIC)
+            || method.getContainingClass() == null);
+        return new ArrayList<>(methods);
+    }
+
+    /**
+     * 查找测试类，不存在时弹框创建，测试类就绪后在 EDT 上回调 onReady
+     */
+    protected void resolveTestClass(Project project,
+                                    PsiMethod method,
+                                    Module module,
+                                    PsiClass containingClass,
+                                    Consumer<PsiClass> onReady) {
+        // 类查找与目录解析放到后台读操作中，重复点击时合并为最后一次
+        BackgroundableProcessIndicator indicator =
+            new BackgroundableProcessIndicator(project, "Resolving fast test", null, null, true);
+        indicator.start();
+        ReadAction.nonBlocking(() -> resolveContext(project, module, containingClass))
+            .inSmartMode(project)
+            .expireWhen(() -> !method.isValid() || module.isDisposed())
+            .coalesceBy(this, project)
+            .wrapProgress(indicator)
+            .finishOnUiThread(
+                ModalityState.defaultModalityState(),
+                context -> onContextResolved(project, method, module, containingClass, context, onReady)
+            )
+            .submit(AppExecutorUtil.getAppExecutorService())
+            .onProcessed(context -> {
+                if (indicator.isRunning()) {
+                    indicator.stop();
+                }
+            });
+    }
+
+    /**
+     * 后台读操作中解析的上下文
+     */
+    protected record ResolvedContext(@Nullable PsiClass dynamicBeanLoadingClass,
+                                     String packageName,
+                                     @Nullable PsiClass testClass) {
+    }
+
+    private ResolvedContext resolveContext(Project project, Module module, PsiClass containingClass) {
+        ProgressIndicator indicator = ProgressManager.getInstance().getProgressIndicator();
+        if (indicator != null) {
+            indicator.setText2("Looking up atom-test framework classes");
+        }
+        PsiClass dynamicBeanLoadingClass =
+            AtomTestFrameworkService.getInstance(project).getFrameworkClasses().dynamicBeanLoading();
+        if (dynamicBeanLoadingClass == null) {
+            return new ResolvedContext(null, "", null);
+        }
+
+        // 获取类的包名
+        PsiPackage psiPackage = null;
+        if (containingClass.getContainingFile().getParent() != null) {
+            psiPackage = JavaDirectoryService.getInstance().getPackage(containingClass.getContainingFile().getParent());
+        }
+        String packageName = psiPackage != null ? psiPackage.getQualifiedName() : "";
+
+        if (indicator != null) {
+            indicator.setText2("Looking up test class");
+        }
+        PsiClass testClass = getTestClass(project, module, packageName, containingClass.getName());
+        return new ResolvedContext(dynamicBeanLoadingClass, packageName, testClass);
+    }
+
+    private void onContextResolved(Project project,
+                                   PsiMethod method,
+                                   Module module,
+                                   PsiClass containingClass,
+                                   ResolvedContext context,
+                                   Consumer<PsiClass> onReady) {
+        PsiClass dynamicBeanLoadingClass = context.dynamicBeanLoadingClass();
         if (dynamicBeanLoadingClass == null) {
             Messages.showMessageDialog(
                 project,
@@ -129,13 +266,8 @@ public class RunJUnitTestAction extends AnAction {
             return;
         }
 
-        // 获取类的包名
-        PsiPackage psiPackage = null;
-        if (containingClass.getContainingFile().getParent() != null) {
-            psiPackage = JavaDirectoryService.getInstance().getPackage(containingClass.getContainingFile().getParent());
-        }
-        String packageName = psiPackage != null ? psiPackage.getQualifiedName() : "";
-        PsiClass existTestClass = getTestClass(project, module, packageName, containingClass.getName());
+        String packageName = context.packageName();
+        PsiClass existTestClass = context.testClass();
         if (existTestClass == null) {
             // 创建弹框
             DialogBuilder dialogBuilder = new DialogBuilder(project);
@@ -191,7 +323,7 @@ public class RunJUnitTestAction extends AnAction {
                     String extension = virtualFile.getExtension();
                     return "yml".equals(extension) || "yaml".equals(extension) || "properties".equals(extension);
                 });
-                PsiDirectory testResourcesDirectory = getTestResourcesDirectory(module);
+                PsiDirectory testResourcesDirectory = getTestResourcesDirectory(module, false);
                 if (testResourcesDirectory != null) {
                     propertiesFileDescriptor.withRoots(testResourcesDirectory.getVirtualFile());
                 }
@@ -220,12 +352,17 @@ public class RunJUnitTestAction extends AnAction {
             nacosLabelBox.add(nacosLabel);
             nacosLabelBox.setPreferredSize(new Dimension(150, nacosLabelBox.getPreferredSize().height));
 
-            // 创建参数文本框
-            JTextField nacosField = new JTextField("false");
+            // true 为每次运行在线拉取，snapshot 为拉取一次保存到本地后按属性文件加载
+            ComboBox<String> nacosField = new ComboBox<>(new String[]{"false", "true", NACOS_SNAPSHOT});
             nacosField.setPreferredSize(new Dimension(300, nacosField.getPreferredSize().height));
 
             addComponentToPanel(panel, nacosLabelBox, row, 0);
             addComponentToPanel(panel, nacosField, row, 1);
+            row++;
+
+            // 数据源替换为按本地快照初始化的 H2 内存库
+            JBCheckBox inMemoryDatabaseCheckBox = new JBCheckBox("使用 H2 内存数据库（按 db-snapshot 快照初始化）");
+            addComponentToPanel(panel, inMemoryDatabaseCheckBox, row, 1);
 
             // 设置弹框内容
             dialogBuilder.setCenterPanel(panel);
@@ -236,7 +373,7 @@ public class RunJUnitTestAction extends AnAction {
             if (dialogBuilder.show() == DialogWrapper.OK_EXIT_CODE) {
                 String mainClassQualifiedName = mainClassField.getText();
                 String propertiesFilesString = propertiesField.getText();
-                String nacosString = nacosField.getText();
+                String nacosString = (String) nacosField.getSelectedItem();
 
                 // 解析用户输入
                 PsiClass mainClass = JavaPsiFacade.getInstance(project)
@@ -249,39 +386,280 @@ public class RunJUnitTestAction extends AnAction {
                     Messages.showMessageDialog(project, "请选择测试属性文件", "Error", Messages.getErrorIcon());
                     return;
                 }
-
-                // 在 src/main/test 目录下查找或创建测试类
-                PsiClass testClass = findOrCreateTestClass(
-                    project,
-                    module,
-                    packageName,
-                    containingClass.getName(),
-                    mainClass,
-                    propertiesFilesString,
-                    nacosString
-                );
-                if (testClass == null) {
-                    Messages.showMessageDialog(project, "创建测试类失败", "Error", Messages.getErrorIcon());
+                if (NACOS_SNAPSHOT.equals(nacosString)) {
+                    List<String> snapshotFiles = createNacosSnapshot(
+                        project, module, StringUtil.split(propertiesFilesString, ",")
+                    );
+                    if (snapshotFiles == null) {
+                        return;
+                    }
+                    propertiesFilesString = propertiesFilesString + ", " + String.join(", ", snapshotFiles);
+                    nacosString = "false";
+                }
+                if (inMemoryDatabaseCheckBox.isSelected()) {
+                    String testPropertiesFiles = propertiesFilesString + ", " + InMemoryDatabase.OVERRIDE_FILE;
+                    String testNacos = nacosString;
+                    prepareInMemoryDatabase(
+                        project, module, StringUtil.split(propertiesFilesString, ","),
+                        () -> createTestClass(
+                            project, module, packageName, containingClass, dynamicBeanLoadingClass, mainClass,
+                            testPropertiesFiles, testNacos, onReady
+                        )
+                    );
                     return;
                 }
+                createTestClass(
+                    project, module, packageName, containingClass, dynamicBeanLoadingClass, mainClass,
+                    propertiesFilesString, nacosString, onReady
+                );
+            }
+            return;
+        }
+
+        onReady.accept(existTestClass);
+    }
+
+    private void createTestClass(Project project,
+                                 Module module,
+                                 String packageName,
+                                 PsiClass containingClass,
+                                 PsiClass dynamicBeanLoadingClass,
+                                 PsiClass mainClass,
+                                 String propertiesFilesString,
+                                 String nacosString,
+                                 Consumer<PsiClass> onReady) {
+        // 后台计算选中 Bean 可达的最小 Bean 集合
+        Set<String> beans = computeReachableBeans(project, module, containingClass, dynamicBeanLoadingClass);
+        if (beans == null) {
+            return;
+        }
+
+        // 在 src/main/test 目录下查找或创建测试类
+        PsiClass testClass = findOrCreateTestClass(
+            project,
+            module,
+            packageName,
+            containingClass.getName(),
+            mainClass,
+            propertiesFilesString,
+            nacosString,
+            beans
+        );
+        if (testClass == null) {
+            Messages.showMessageDialog(project, "创建测试类失败", "Error", Messages.getErrorIcon());
+            return;
+        }
+
+        onReady.accept(testClass);
+    }
+
+    /**
+     * 拉取 Nacos 配置快照，拉取失败时可改为导入控制台导出的配置 zip，返回快照文件，取消时返回 null
+     */
+    protected @Nullable List<String> createNacosSnapshot(Project project, Module module, List<String> propertyFiles) {
+        List<String> sources = ContainerUtil.map(propertyFiles, String::trim);
+        NacosSnapshotService snapshotService = NacosSnapshotService.getInstance(project);
+        try {
+            return ProgressManager.getInstance().runProcessWithProgressSynchronously(
+                () -> snapshotService.createSnapshot(
+                    module, sources, ProgressManager.getInstance().getProgressIndicator()
+                ),
+                "Fetching Nacos Config Snapshot",
+                true,
+                project
+            );
+        } catch (ProcessCanceledException e) {
+            return null;
+        } catch (IOException e) {
+            int answer = Messages.showYesNoDialog(
+                project,
+                "拉取Nacos配置失败：" + e.getMessage() + "\n是否导入Nacos控制台导出的配置zip？",
+                "Nacos Snapshot",
+                Messages.getWarningIcon()
+            );
+            if (answer != Messages.YES) {
+                return null;
+            }
+        }
 
-                runTestMethod(method, project, testClass, containingClass, module);
+        VirtualFile exportZip = FileChooser.chooseFile(
+            FileChooserDescriptorFactory.createSingleFileDescriptor("zip"), project, null
+        );
+        if (exportZip == null) {
+            return null;
+        }
+        try {
+            return snapshotService.importExport(module, exportZip, sources);
+        } catch (IOException e) {
+            Messages.showMessageDialog(project, "导入Nacos配置失败：" + e.getMessage(), "Error", Messages.getErrorIcon());
+            return null;
+        }
+    }
 
+    /**
+     * 检查 H2 依赖并写入数据源覆盖文件后执行 onPrepared；尚未导出数据库快照时询问是否立即导出，
+     * 导出时等快照写入后再执行 onPrepared，导出失败或取消则不再继续
+     */
+    protected void prepareInMemoryDatabase(Project project,
+                                           Module module,
+                                           List<String> propertyFiles,
+                                           Runnable onPrepared) {
+        InMemoryDatabase inMemoryDatabase = InMemoryDatabase.getInstance(project);
+        if (!inMemoryDatabase.isH2Available(module)) {
+            Messages.showMessageDialog(
+                project,
+                "尚未引入H2依赖，请引入以下依赖后继续操作：\n<dependency>\n"
+                    + "            <groupId>com.h2database</groupId>\n"
+                    + "            <artifactId>h2</artifactId>\n"
+                    + "            <scope>test</scope>\n"
+                    + "        </dependency>",
+                "Error",
+                Messages.getErrorIcon()
+            );
+            return;
+        }
+        try {
+            inMemoryDatabase.writeOverride(module);
+        } catch (IOException e) {
+            Messages.showMessageDialog(project, "写入数据源覆盖文件失败：" + e.getMessage(), "Error", Messages.getErrorIcon());
+            return;
+        }
+        if (!inMemoryDatabase.hasSnapshot(module) && Messages.showYesNoDialog(
+            project,
+            "尚未导出数据库快照，是否现在从测试属性文件配置的数据源导出？\n未导出快照时内存库为空",
+            "In-Memory Database",
+            Messages.getQuestionIcon()
+        ) == Messages.YES) {
+            exportDatabaseSnapshot(project, module, ContainerUtil.map(propertyFiles, String::trim), onPrepared);
+            return;
+        }
+        onPrepared.run();
+    }
+
+    /**
+     * 以测试类路径运行生成的导出类，把属性文件所配置数据源的表结构与数据写入 src/test/resources/db-snapshot，
+     * 导出成功后在 EDT 上执行 onExported
+     */
+    protected void exportDatabaseSnapshot(Project project,
+                                          Module module,
+                                          List<String> propertyFiles,
+                                          @Nullable Runnable onExported) {
+        String rowsText = Messages.showInputDialog(
+            project, "每张表导出的最大行数:", "Export Database Snapshot", Messages.getQuestionIcon(), "200", null
+        );
+        if (rowsText == null) {
+            return;
+        }
+        InMemoryDatabase.ExportLaunch exportLaunch;
+        try {
+            int rows = Integer.parseInt(rowsText.trim());
+            if (rows < 0) {
+                throw new NumberFormatException();
             }
+            exportLaunch = InMemoryDatabase.getInstance(project).getExportLaunch(module, propertyFiles, rows);
+        } catch (NumberFormatException e) {
+            Messages.showMessageDialog(project, "最大行数需为非负整数", "Error", Messages.getErrorIcon());
+            return;
+        } catch (IOException e) {
+            Messages.showMessageDialog(project, "导出数据库快照失败：" + e.getMessage(), "Error", Messages.getErrorIcon());
+            return;
+        }
+        String exporterSimpleName = StringUtil.getShortName(InMemoryDatabase.EXPORTER_CLASS);
+        if (!SupportSources.ensure(project, module, exporterSimpleName)) {
+            Messages.showMessageDialog(project, "生成快照导出类失败", "Error", Messages.getErrorIcon());
             return;
         }
 
-        PsiMethod existTestMethod = getTestMethod(existTestClass, method);
+        RunnerAndConfigurationSettings configurationSettings = RunManager.getInstance(project).createConfiguration(
+            exporterSimpleName, ApplicationConfigurationType.getInstance().getConfigurationFactories()[0]
+        );
+        ApplicationConfiguration configuration = (ApplicationConfiguration) configurationSettings.getConfiguration();
+        configuration.setMainClassName(InMemoryDatabase.EXPORTER_CLASS);
+        configuration.setModule(module);
+        configuration.setVMParameters(ParametersListUtil.join(exportLaunch.vmParameters()));
+        // 密码经环境变量传入，不出现在运行窗口显示的命令行中
+        configuration.setEnvs(exportLaunch.environment());
+        runConfiguration(configurationSettings, project, LaunchMode.RUN, new ProgramRunner.Callback() {
+            @Override
+            public void processStarted(RunContentDescriptor descriptor) {
+                ProcessHandler processHandler = descriptor == null ? null : descriptor.getProcessHandler();
+                if (processHandler == null) {
+                    return;
+                }
+                processHandler.addProcessListener(new ProcessListener() {
+                    @Override
+                    public void processTerminated(@NotNull ProcessEvent event) {
+                        TestDaemonManager.getInstance(project).notify(
+                            event.getExitCode() == 0
+                                ? "数据库快照已导出到 src/test/resources/" + InMemoryDatabase.SNAPSHOT_DIRECTORY
+                                : "导出数据库快照失败，请查看运行窗口中的输出",
+                            event.getExitCode() == 0 ? NotificationType.INFORMATION : NotificationType.ERROR
+                        );
+                        // 快照文件刷新进 VFS 后再继续，之后的编译才会把它们复制到测试输出目录
+                        Runnable onRefreshed = event.getExitCode() == 0 ? onExported : null;
+                        VirtualFile resourcesRoot =
+                            AtomTestFrameworkService.getInstance(project).findTestRoot(module, "resources");
+                        if (resourcesRoot != null) {
+                            VfsUtil.markDirty(true, true, resourcesRoot);
+                            resourcesRoot.refresh(true, true, onRefreshed);
+                        } else if (onRefreshed != null) {
+                            ApplicationManager.getApplication().invokeLater(onRefreshed, project.getDisposed());
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * 测试类已就绪后的处理，默认查找或生成测试方法并按测试类记住的方式运行
+     */
+    protected void onTestClassReady(PsiMethod method,
+                                    Project project,
+                                    PsiClass testClass,
+                                    PsiClass containingClass,
+                                    Module module) {
+        PsiMethod existTestMethod = getTestMethod(testClass, method);
         if (existTestMethod == null) {
-            runTestMethod(method, project, existTestClass, containingClass, module);
+            runTestMethod(method, project, testClass, containingClass, module);
             return;
         }
 
-        setBreakpointAtFirstLine(project, method);
+        launchTestMethod(existTestMethod, method, project, testClass, module);
+    }
+
+    /**
+     * 本次运行使用的启动方式，默认取测试类上次选择的方式
+     */
+    protected LaunchMode getLaunchMode(Project project, PsiClass testClass) {
+        return FastTestSettings.getInstance(project).getLaunchMode(testClass.getQualifiedName());
+    }
+
+    /**
+     * 参数输入框中是否显示并记住 Debug 开关，固定启动方式的子类返回 false
+     */
+    protected boolean isLaunchModeSelectable() {
+        return true;
+    }
+
+    private void launchTestMethod(PsiMethod testMethod,
+                                  PsiMethod method,
+                                  Project project,
+                                  PsiClass testClass,
+                                  Module module) {
+        LaunchMode launchMode = getLaunchMode(project, testClass);
+        if (launchMode == LaunchMode.DEBUG) {
+            setBreakpointAtFirstLine(project, method);
+        }
+
         // 运行JUnit测试用例
         RunnerAndConfigurationSettings configurationSettings =
-            createJUnitConfiguration(existTestMethod, project, module);
-        runConfiguration(configurationSettings, project);
+            createJUnitConfiguration(testMethod, project, module);
+        // Debug 无限重复：Reinvoke 重载修改的类后，下一次调用即使用新代码而无需重启上下文；Run 没有断点拦住，只运行一次
+        ((JUnitConfiguration) configurationSettings.getConfiguration()).setRepeatMode(
+            launchMode == LaunchMode.DEBUG ? RepeatCount.UNLIMITED : RepeatCount.ONCE
+        );
+        runConfiguration(configurationSettings, project, launchMode, null);
     }
 
     private void runTestMethod(PsiMethod method,
@@ -289,6 +667,33 @@ public class RunJUnitTestAction extends AnAction {
                                PsiClass existTestClass,
                                PsiClass containingClass,
                                Module module) {
+        List<JTextComponent> paramTextFieldList =
+            showParameterDialog(method, project, existTestClass.getQualifiedName());
+        if (paramTextFieldList == null) {
+            return;
+        }
+
+        // 在测试类中查找或创建测试方法
+        PsiMethod testMethod =
+            findOrCreateTestMethod(existTestClass, method, containingClass, paramTextFieldList);
+        if (testMethod == null) {
+            Messages.showMessageDialog(project, "创建测试方法失败", "Error", Messages.getErrorIcon());
+            return;
+        }
+
+        launchTestMethod(testMethod, method, project, existTestClass, module);
+    }
+
+    protected @Nullable List<JTextComponent> showParameterDialog(PsiMethod method, Project project) {
+        return showParameterDialog(method, project, null);
+    }
+
+    /**
+     * 弹出参数输入框，取消或存在未填写的参数时返回 null；传入测试类名时显示并记住 Debug 与远程客户端 Stub 开关
+     */
+    protected @Nullable List<JTextComponent> showParameterDialog(PsiMethod method,
+                                                                 Project project,
+                                                                 @Nullable String testClassName) {
         // 创建弹框
         DialogBuilder dialogBuilder = new DialogBuilder(project);
         dialogBuilder.setTitle("Run JUnit Test");
@@ -297,9 +702,10 @@ public class RunJUnitTestAction extends AnAction {
         PsiParameter[] parameters = parameterList.getParameters();
 
         // 创建UI组件
-        JPanel panel = new JPanel(new GridLayoutManager(parameters.length + 1, 3, new Insets(10, 10, 10, 10), -1, -1));
+        JPanel panel = new JPanel(new GridLayoutManager(parameters.length + 2, 3, new Insets(10, 10, 10, 10), -1, -1));
 
         int row = 0;
+        FastTestSettings settings = FastTestSettings.getInstance(project);
         List<JTextComponent> paramTextFieldList = new ArrayList<>();
         for (PsiParameter parameter : parameters) {
             String paramName = parameter.getName();
@@ -333,15 +739,49 @@ public class RunJUnitTestAction extends AnAction {
                 scrollPane.setPreferredSize(new Dimension(300, 100));
 
                 // 生成占位符 JSON 并设置为初始文本
-                String placeholderJson = generatePlaceholderJsonFromPsiType(paramType);
+                String placeholderJson = PlaceholderJson.generate(paramType, settings.getPlaceholderDepth());
                 jsonTextArea.setText(placeholderJson);
 
+                // 大数据集直接引用已有的 fixture 文件，不经过文本框
+                JButton fixtureButton = new JButton("选择Fixture");
+                fixtureButton.addActionListener(event -> {
+                    Module module = ModuleUtilCore.findModuleForPsiElement(method);
+                    PsiDirectory testResourcesDirectory = module == null ? null : getTestResourcesDirectory(module, false);
+                    if (testResourcesDirectory == null) {
+                        return;
+                    }
+                    VirtualFile resourcesRoot = testResourcesDirectory.getVirtualFile();
+                    FileChooserDescriptor fixtureDescriptor =
+                        FileChooserDescriptorFactory.createSingleFileDescriptor("json").withRoots(resourcesRoot);
+                    VirtualFile fixture = FileChooser.chooseFile(fixtureDescriptor, project, null);
+                    String relativePath = fixture == null ? null : VfsUtilCore.getRelativePath(fixture, resourcesRoot);
+                    if (relativePath != null) {
+                        jsonTextArea.setText(FIXTURE_PREFIX + relativePath);
+                    }
+                });
+
                 addComponentToPanel(panel, paramLabel, row, 0);
                 addComponentToPanel(panel, scrollPane, row, 1);
+                addComponentToPanel(panel, fixtureButton, row, 2);
             }
             row++;
         }
 
+        JBCheckBox debugCheckBox = new JBCheckBox("Debug 模式运行（在方法首行设置断点）");
+        JBCheckBox remoteStubsCheckBox = new JBCheckBox("远程客户端（Feign/Dubbo/Redis/MQ）使用本地 Stub");
+        remoteStubsCheckBox.setToolTipText(
+            "应答取自 src/test/resources/" + RemoteClientStubs.FIXTURE_DIRECTORY + "/<客户端类名>/<方法名>.json，缺省返回空值"
+        );
+        boolean launchModeSelectable = testClassName != null && isLaunchModeSelectable();
+        if (launchModeSelectable) {
+            debugCheckBox.setSelected(settings.getLaunchMode(testClassName) == LaunchMode.DEBUG);
+            addComponentToPanel(panel, debugCheckBox, row, 1);
+        }
+        if (testClassName != null) {
+            remoteStubsCheckBox.setSelected(settings.isRemoteStubs(testClassName));
+            addComponentToPanel(panel, remoteStubsCheckBox, row + 1, 1);
+        }
+
         // 设置弹框内容
         dialogBuilder.setCenterPanel(panel);
         dialogBuilder.addOkAction();
@@ -350,6 +790,13 @@ public class RunJUnitTestAction extends AnAction {
         // 显示弹框并获取用户输入
         if (dialogBuilder.show() == DialogWrapper.OK_EXIT_CODE) {
 
+            if (launchModeSelectable) {
+                settings.setLaunchMode(testClassName, debugCheckBox.isSelected() ? LaunchMode.DEBUG : LaunchMode.RUN);
+            }
+            if (testClassName != null) {
+                settings.setRemoteStubs(testClassName, remoteStubsCheckBox.isSelected());
+            }
+
             for (JTextComponent paramTextField : paramTextFieldList) {
                 if (paramTextField.getText() == null || paramTextField.getText().trim().isEmpty()) {
                     Messages.showMessageDialog(
@@ -358,44 +805,12 @@ public class RunJUnitTestAction extends AnAction {
                         "Error",
                         Messages.getErrorIcon()
                     );
-                    return;
-                }
-            }
-
-            // 在测试类中查找或创建测试方法
-            PsiMethod testMethod =
-                findOrCreateTestMethod(existTestClass, method, containingClass, paramTextFieldList);
-            if (testMethod == null) {
-                Messages.showMessageDialog(project, "创建测试方法失败", "Error", Messages.getErrorIcon());
-                return;
-            }
-
-            setBreakpointAtFirstLine(project, method);
-
-            // 运行JUnit测试用例
-            RunnerAndConfigurationSettings configurationSettings =
-                createJUnitConfiguration(testMethod, project, module);
-            runConfiguration(configurationSettings, project);
-        }
-    }
-
-    private String generatePlaceholderJsonFromPsiType(PsiType paramType) {
-        if (isListOrArrayType(paramType)) {
-            return "[{}]";
-        } else if (paramType instanceof PsiClassType classType) {
-            PsiClass resolvedClass = classType.resolve();
-            StringBuilder builder = new StringBuilder("{");
-            if (resolvedClass != null) {
-                for (PsiField field : resolvedClass.getFields()) {
-                    if (!field.hasModifierProperty(PsiModifier.STATIC)) {
-                        builder.append("\n").append("  ").append("\"").append(field.getName()).append("\":,");
-                    }
+                    return null;
                 }
             }
-            builder.append("\n}");
-            return builder.toString();
+            return paramTextFieldList;
         }
-        return "{}";
+        return null;
     }
 
     public static void setBreakpointAtFirstLine(Project project, PsiMethod method) {
@@ -439,10 +854,20 @@ public class RunJUnitTestAction extends AnAction {
         }
     }
 
-    private RunnerAndConfigurationSettings createJUnitConfiguration(PsiMethod method,
+    protected RunnerAndConfigurationSettings createJUnitConfiguration(PsiMethod method,
                                                                     Project project,
                                                                     com.intellij.openapi.module.Module module) {
 
+        // 重复点击直接复用缓存的配置
+        RunConfigurationCache configurationCache = RunConfigurationCache.getInstance(project);
+        RunnerAndConfigurationSettings cachedSettings = configurationCache.get(method, module);
+        if (cachedSettings != null) {
+            LaunchProfiles.getInstance(project).apply(
+                (JUnitConfiguration) cachedSettings.getConfiguration(), module
+            );
+            return cachedSettings;
+        }
+
         RunManager runManager = RunManager.getInstance(project);
         JUnitConfigurationType type = JUnitConfigurationType.getInstance();
         RunnerAndConfigurationSettings configurationSettings =
@@ -453,20 +878,44 @@ public class RunJUnitTestAction extends AnAction {
         // 使用 PsiLocation.fromPsiElement 获取 Location<PsiMethod>
         Location<PsiMethod> methodLocation = PsiLocation.fromPsiElement(method);
         configuration.beMethodConfiguration(methodLocation);
-        configuration.setRepeatMode(RepeatCount.UNLIMITED);
+        LaunchProfiles.getInstance(project).apply(configuration, module);
 
+        configurationCache.put(method, module, configurationSettings);
         return configurationSettings;
     }
 
-    private void runConfiguration(RunnerAndConfigurationSettings configurationSettings, Project project) {
+    protected void runConfiguration(RunnerAndConfigurationSettings configurationSettings, Project project) {
+        runConfiguration(configurationSettings, project, null);
+    }
+
+    protected void runConfiguration(RunnerAndConfigurationSettings configurationSettings,
+                                    Project project,
+                                    @Nullable ProgramRunner.Callback callback) {
+        runConfiguration(configurationSettings, project, LaunchMode.DEBUG, callback);
+    }
+
+    protected void runConfiguration(RunnerAndConfigurationSettings configurationSettings,
+                                    Project project,
+                                    LaunchMode launchMode,
+                                    @Nullable ProgramRunner.Callback callback) {
 
         try {
 
             // Obtain the Executor instance for JUnit
-            Executor executor = DefaultDebugExecutor.getDebugExecutorInstance();
+            Executor executor = launchMode.getExecutor();
+
+            // 按用户选项调整 VM 参数
+            callback = StartupProfiler.getInstance(project).customize(configurationSettings, callback);
+            callback = RemoteClientStubs.getInstance(project).customize(configurationSettings, callback);
+            callback = InMemoryDatabase.getInstance(project).customize(configurationSettings, callback);
+            // 精简类路径在前，AppCDS 按精简后实际加载的 jar 生成归档
+            callback = ClasspathTrimmer.getInstance(project).customize(configurationSettings, callback);
+            callback = AppCdsArchiver.getInstance(project).customize(configurationSettings, callback);
+            callback = LaunchProfiles.getInstance(project).customize(configurationSettings, launchMode, callback);
+            callback = RunHistory.getInstance(project).customize(configurationSettings, launchMode, callback);
 
             ExecutionEnvironmentBuilder builder = ExecutionEnvironmentBuilder.create(executor, configurationSettings);
-            ExecutionEnvironment environment = builder.build();
+            ExecutionEnvironment environment = builder.build(callback);
             ProgramRunner<?> runner = environment.getRunner();
             runner.execute(environment);
         } catch (Exception ex) {
@@ -483,8 +932,8 @@ public class RunJUnitTestAction extends AnAction {
                                   com.intellij.openapi.module.Module module,
                                   String packageName,
                                   String className) {
-        // 获取 src/main/test 目录
-        PsiDirectory testDirectory = getTestDirectory(module);
+        // 获取 src/main/test 目录，此处只读不创建
+        PsiDirectory testDirectory = getTestSourceDirectory(module, "java", false);
         if (testDirectory == null) {
             return null;
         }
@@ -498,20 +947,38 @@ public class RunJUnitTestAction extends AnAction {
             .findClass(testClassQualifiedName, GlobalSearchScope.moduleScope(module));
     }
 
+    /**
+     * 注解支持 beans 属性时，在后台读操作中计算可达 Bean 集合；取消时返回 null
+     */
+    private @Nullable Set<String> computeReachableBeans(Project project,
+                                                        Module module,
+                                                        PsiClass beanClass,
+                                                        PsiClass dynamicBeanLoadingClass) {
+        if (dynamicBeanLoadingClass.findMethodsByName("beans", false).length == 0) {
+            return Collections.emptySet();
+        }
+        try {
+            return ProgressManager.getInstance().runProcessWithProgressSynchronously(
+                () -> ReadAction.compute(
+                    () -> BeanDependencyGraph.getInstance(project).getReachableBeans(module, beanClass)
+                ),
+                "Analyzing Bean Dependencies",
+                true,
+                project
+            );
+        } catch (ProcessCanceledException ex) {
+            return null;
+        }
+    }
+
     private PsiClass findOrCreateTestClass(Project project,
                                            com.intellij.openapi.module.Module module,
                                            String packageName,
                                            String className,
                                            PsiClass mainClass,
                                            String propertiesFiles,
-                                           String nacosString) {
-        // 获取 src/main/test 目录
-        PsiDirectory testDirectory = getTestDirectory(module);
-        if (testDirectory == null) {
-            System.out.println("testDirectory is null");
-            return null;
-        }
-
+                                           String nacosString,
+                                           Set<String> beans) {
         // 查找或创建测试类
         PsiClass testClass = getTestClass(project, module, packageName, className);
         if (testClass != null) {
@@ -527,6 +994,13 @@ public class RunJUnitTestAction extends AnAction {
         WriteCommandAction.runWriteCommandAction(
             project, (Computable<PsiClass>) () -> {
 
+                // 获取 src/main/test 目录，不存在时在写操作中创建
+                PsiDirectory testDirectory = getTestDirectory(module);
+                if (testDirectory == null) {
+                    System.out.println("testDirectory is null");
+                    return null;
+                }
+
                 PsiDirectory currentDirectory = getPsiDirectory(packageName, testDirectory);
                 if (currentDirectory == null) {
                     System.out.println("currentDirectory is null");
@@ -548,14 +1022,14 @@ public class RunJUnitTestAction extends AnAction {
                 Objects.requireNonNull(javaFile.getImportList()).add(elementFactory.createImportStatement(mainClass));
                 String mainClassName = mainClass.getName();
 
-                PsiClass dynamicBeanLoadingClass = javaPsiFacade.findClass(
-                    "io.github.atom.test.annonation.DynamicBeanLoading",
-                    GlobalSearchScope.allScope(project)
-                );
+                AtomTestFrameworkService.FrameworkClasses frameworkClasses =
+                    AtomTestFrameworkService.getInstance(project).getFrameworkClasses();
+                PsiClass dynamicBeanLoadingClass = frameworkClasses.dynamicBeanLoading();
                 if (dynamicBeanLoadingClass != null) {
                     javaFile.getImportList().add(elementFactory.createImportStatement(dynamicBeanLoadingClass));
                 }
 
+                String beansAttribute = getBeansAttribute(beans, newClass);
                 PsiAnnotation dynamicBeanLoadingAnnotation = elementFactory.createAnnotationFromText(
                     "@DynamicBeanLoading"
                         + "(\n\tmainClass = "
@@ -565,10 +1039,14 @@ public class RunJUnitTestAction extends AnAction {
                         + "\"}, "
                         + "\n\tnacosEnabled = "
                         + nacosString
+                        + beansAttribute
                         + "\n)", newClass
                 );
-                Objects.requireNonNull(newClass.getModifierList())
+                PsiElement addedAnnotation = Objects.requireNonNull(newClass.getModifierList())
                     .addBefore(dynamicBeanLoadingAnnotation, newClass.getModifierList().getFirstChild());
+                if (!beansAttribute.isEmpty()) {
+                    JavaCodeStyleManager.getInstance(project).shortenClassReferences(addedAnnotation);
+                }
 
                 PsiAnnotation dynamicResourceAnnotation =
                     elementFactory.createAnnotationFromText("@DynamicResource", null);
@@ -585,19 +1063,12 @@ public class RunJUnitTestAction extends AnAction {
                     .addBefore(dynamicResourceAnnotation, dynamicResourceField.getModifierList().getFirstChild());
                 newClass.add(dynamicResourceField);
 
-                PsiClass dynamicResourceClass =
-                    javaPsiFacade.findClass(
-                        "io.github.atom.test.annonation.DynamicResource",
-                        GlobalSearchScope.allScope(project)
-                    );
+                PsiClass dynamicResourceClass = frameworkClasses.dynamicResource();
                 if (dynamicResourceClass != null) {
                     javaFile.getImportList().add(elementFactory.createImportStatement(dynamicResourceClass));
                 }
 
-                PsiClass baseClass = javaPsiFacade.findClass(
-                    "io.github.atom.test.FastDynamicBeanLoadingTest",
-                    GlobalSearchScope.allScope(project)
-                );
+                PsiClass baseClass = frameworkClasses.baseTestClass();
                 if (baseClass != null) {
                     PsiJavaCodeReferenceElement referenceElement =
                         elementFactory.createClassReferenceElement(baseClass);
@@ -618,17 +1089,33 @@ public class RunJUnitTestAction extends AnAction {
         return createdClass;
     }
 
-    private static void commitDocment(PsiClass testClass) {
-        // 提交所有文档更改
-        PsiDocumentManager.getInstance(testClass.getProject()).commitAllDocuments();
+    /**
+     * 测试类中无法引用的 Bean（其他包中的包私有类、私有内部类）写入类字面量会编译失败，直接跳过
+     */
+    private static String getBeansAttribute(Set<String> beans, PsiClass testClass) {
+        JavaPsiFacade javaPsiFacade = JavaPsiFacade.getInstance(testClass.getProject());
+        StringJoiner joiner = new StringJoiner(",\n\t\t", ", \n\tbeans = {\n\t\t", "\n\t}");
+        joiner.setEmptyValue("");
+        for (String bean : beans) {
+            PsiClass beanClass = javaPsiFacade.findClass(bean, testClass.getResolveScope());
+            if (beanClass != null && PsiUtil.isAccessible(testClass.getProject(), beanClass, testClass, null)) {
+                joiner.add(bean + ".class");
+            } else {
+                System.out.println("skip inaccessible bean " + bean);
+            }
+        }
+        return joiner.toString();
+    }
 
-        // 重新解析文件
+    /**
+     * 只提交测试类所在的文档，避免全项目提交引起其他文件重新解析
+     */
+    protected static void commitDocment(PsiClass testClass) {
         PsiFile psiFile = testClass.getContainingFile();
-        if (psiFile != null) {
-            Document document = psiFile.getViewProvider().getDocument();
-            if (document != null) {
-                PsiDocumentManager.getInstance(testClass.getProject()).commitDocument(document);
-            }
+        PsiDocumentManager documentManager = PsiDocumentManager.getInstance(testClass.getProject());
+        Document document = psiFile == null ? null : documentManager.getDocument(psiFile);
+        if (document != null && documentManager.isUncommited(document)) {
+            documentManager.commitDocument(document);
         }
     }
 
@@ -653,90 +1140,58 @@ public class RunJUnitTestAction extends AnAction {
     }
 
     private PsiDirectory getTestDirectory(com.intellij.openapi.module.Module module) {
-        // 获取模块的 content root
-        String contentRootPath = ModuleRootManager.getInstance(module).getContentRoots()[0].getPath();
-        VirtualFile contentRoot = LocalFileSystem.getInstance().findFileByPath(contentRootPath);
-        if (contentRoot == null) {
-            return null;
-        }
-
-        // 查找或创建 src/main/test 目录
-        VirtualFile testDir = contentRoot.findChild("src");
-        if (testDir == null) {
-            try {
-                testDir = contentRoot.createChildDirectory(null, "src");
-            } catch (IOException e) {
-                e.printStackTrace();
-                return null;
-            }
-        }
+        return getTestSourceDirectory(module, "java", true);
+    }
 
-        testDir = testDir.findChild("test");
-        if (testDir == null) {
-            try {
-                testDir = contentRoot.findChild("src").createChildDirectory(null, "test");
-            } catch (IOException e) {
-                e.printStackTrace();
-                return null;
-            }
-        }
+    protected PsiDirectory getTestResourcesDirectory(com.intellij.openapi.module.Module module, boolean create) {
+        return getTestSourceDirectory(module, "resources", create);
+    }
 
-        testDir = testDir.findChild("java");
-        if (testDir == null) {
-            try {
-                testDir = contentRoot.findChild("src").findChild("test").createChildDirectory(null, "java");
-            } catch (IOException e) {
-                e.printStackTrace();
-                return null;
-            }
+    /**
+     * 查找 src/test/{name} 目录，create 为 true 时不存在则创建，此时需在写操作中调用
+     */
+    private PsiDirectory getTestSourceDirectory(com.intellij.openapi.module.Module module, String name, boolean create) {
+        VirtualFile existDir = AtomTestFrameworkService.getInstance(module.getProject()).findTestRoot(module, name);
+        if (existDir != null || !create) {
+            return existDir == null ? null : PsiManager.getInstance(module.getProject()).findDirectory(existDir);
         }
 
-        return PsiManager.getInstance(module.getProject()).findDirectory(testDir);
-    }
-
-    private PsiDirectory getTestResourcesDirectory(com.intellij.openapi.module.Module module) {
         // 获取模块的 content root
-        String contentRootPath = ModuleRootManager.getInstance(module).getContentRoots()[0].getPath();
-        VirtualFile contentRoot = LocalFileSystem.getInstance().findFileByPath(contentRootPath);
-        if (contentRoot == null) {
+        VirtualFile[] contentRoots = ModuleRootManager.getInstance(module).getContentRoots();
+        if (contentRoots.length == 0) {
             return null;
         }
-
-        // 查找或创建 src/main/test 目录
-        VirtualFile testDir = contentRoot.findChild("src");
-        if (testDir == null) {
-            try {
-                testDir = contentRoot.createChildDirectory(null, "src");
-            } catch (IOException e) {
-                e.printStackTrace();
-                return null;
-            }
-        }
-
-        testDir = testDir.findChild("test");
-        if (testDir == null) {
-            try {
-                testDir = contentRoot.findChild("src").createChildDirectory(null, "test");
-            } catch (IOException e) {
-                e.printStackTrace();
-                return null;
-            }
-        }
-
-        testDir = testDir.findChild("resources");
-        if (testDir == null) {
-            try {
-                testDir = contentRoot.findChild("src").findChild("test").createChildDirectory(null, "resources");
-            } catch (IOException e) {
-                e.printStackTrace();
-                return null;
+        VirtualFile testDir = contentRoots[0];
+        for (String child : new String[]{"src", "test", name}) {
+            VirtualFile childDir = testDir.findChild(child);
+            if (childDir == null) {
+                if (!create) {
+                    return null;
+                }
+                try {
+                    childDir = testDir.createChildDirectory(null, child);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                    return null;
+                }
             }
+            testDir = childDir;
         }
 
         return PsiManager.getInstance(module.getProject()).findDirectory(testDir);
     }
 
-    private PsiMethod getTestMethod(PsiClass testClass, PsiMethod originalMethod) {
+    protected PsiMethod getTestMethod(PsiClass testClass, PsiMethod originalMethod) {
+
+        // 优先通过索引按目标类型与方法签名查找，可区分重载方法
+        PsiFile testFile = testClass.getContainingFile();
+        if (testFile != null && !DumbService.isDumb(testClass.getProject())) {
+            return TestMethodIndex.findTestMethod(
+                testClass.getProject(),
+                originalMethod,
+                GlobalSearchScope.fileScope(testFile)
+            );
+        }
 
         String testMethodName = "test" + capitalize(originalMethod.getName());
         Collection<PsiMethod> testMethods = PsiTreeUtil.findChildrenOfType(testClass, PsiMethod.class);
@@ -761,110 +1216,23 @@ public class RunJUnitTestAction extends AnAction {
                                              PsiClass containingClass,
                                              List<JTextComponent> paramTextFieldList) {
 
-        String testMethodName = "test" + capitalize(originalMethod.getName());
-
         // Filter methods by name
         PsiMethod method = getTestMethod(testClass, originalMethod);
         if (method != null) {
             return method;
         }
 
-        WriteCommandAction.runWriteCommandAction(
-            testClass.getProject(), (Computable<PsiMethod>) () -> {
-                // Create test method
-                PsiMethod newTestMethod = PsiElementFactory.getInstance(testClass.getProject())
-                    .createMethod(testMethodName, PsiTypes.voidType());
-                newTestMethod.getModifierList().addAnnotation("org.junit.Test");
-
-                newTestMethod.getThrowsList()
-                    .add(PsiElementFactory.getInstance(testClass.getProject())
-                        .createReferenceFromText("Exception", null));
-
-                // Add method body to invoke the original method
-                StringBuilder methodBody = new StringBuilder();
-                methodBody.append("{\n");
-
-                // Get the parameters of the original method
-                PsiParameter[] parameters = originalMethod.getParameterList().getParameters();
-                Map<String, String> paramMap = new HashMap<>();
-                for (JTextComponent paramField : paramTextFieldList) {
-                    paramMap.put(paramField.getName(), paramField.getText());
-                }
-
-                for (PsiParameter parameter : parameters) {
-                    String paramName = parameter.getName();
-                    PsiType paramType = parameter.getType();
-                    String userInput = paramMap.get(paramName);
-                    if (isPrimitiveType(paramType)) {
-                        if (userInput != null) {
-                            methodBody.append("    ")
-                                .append(paramType.getPresentableText())
-                                .append(" ")
-                                .append(paramName)
-                                .append(" = ")
-                                .append(userInput)
-                                .append(";\n");
-                        }
-                    } else {
-                        String fullyQualifiedTypeName = paramType.getCanonicalText();
-                        String genericClassName = getGenericClassName(paramType);
-                        importClassIfNotExists(testClass, fullyQualifiedTypeName);
-                        if (isListOrArrayType(paramType)) {
-                            // Handle List or array type
-                            methodBody.append("    ")
-                                .append(fullyQualifiedTypeName)
-                                .append(" ")
-                                .append(paramName)
-                                .append(" = com.alibaba.fastjson2.JSON.parseArray(\"")
-                                .append(userInput.replace("\"", "\\\"").replace("\n", ""))
-                                .append("\", ")
-                                .append(genericClassName)
-                                .append(".class);\n");
-                        } else {
-                            String outerClassName = getOuterClassName(fullyQualifiedTypeName);
-                            // Handle other complex types
-                            methodBody.append("    ")
-                                .append(fullyQualifiedTypeName)
-                                .append(" ")
-                                .append(paramName)
-                                .append(" = com.alibaba.fastjson2.JSON.parseObject(\"")
-                                .append(userInput.replace("\"", "\\\"").replace("\n", ""))
-                                .append("\", ")
-                                .append(outerClassName)
-                                .append(".class);\n");
-                        }
-                    }
-                }
-
-                methodBody.append("\t")
-                    .append(toLowerCaseFirstLetter(containingClass.getName()))
-                    .append(".")
-                    .append(originalMethod.getName())
-                    .append("(");
-                for (int i = 0; i < parameters.length; i++) {
-                    if (i > 0) {
-                        methodBody.append(", ");
-                    }
-                    methodBody.append(parameters[i].getName());
-                }
-                methodBody.append(");\n");
-                methodBody.append("}\n");
-
-                // Add the method body to the test method
-                Objects.requireNonNull(newTestMethod.getBody())
-                    .replace(PsiElementFactory.getInstance(testClass.getProject())
-                        .createCodeBlockFromText(methodBody.toString(), null));
-
-                CodeStyleManager.getInstance(testClass.getProject()).reformat(testClass.add(newTestMethod));
-                return newTestMethod;
-            }
+        String testMethodName = WriteCommandAction.runWriteCommandAction(
+            testClass.getProject(),
+            (Computable<String>) () -> addTestMethod(testClass, originalMethod, containingClass, paramTextFieldList)
         );
 
-        // 提交所有文档更改
+        // 提交测试类文档
         commitDocment(testClass);
 
         // 验证创建的方法是否正确
-        PsiMethod verifiedMethod = testClass.findMethodsByName(testMethodName, false)[0];
+        PsiMethod[] verifiedMethods = testClass.findMethodsByName(testMethodName, false);
+        PsiMethod verifiedMethod = verifiedMethods.length > 0 ? verifiedMethods[0] : null;
         if (verifiedMethod == null || !verifiedMethod.getName().equals(testMethodName)) {
             Messages.showMessageDialog(
                 testClass.getProject(),
@@ -878,98 +1246,148 @@ public class RunJUnitTestAction extends AnAction {
         return verifiedMethod;
     }
 
-    private String getGenericClassName(PsiType paramType) {
-        if (paramType instanceof PsiClassType) {
-            PsiClassType classType = (PsiClassType) paramType;
-            PsiType[] parameters = classType.getParameters();
-            if (parameters.length > 0) {
-                return parameters[0].getCanonicalText();
-            }
+    /**
+     * 在测试类中添加调用 originalMethod 的测试方法并返回方法名，需在写操作中调用；
+     * 方法文本一次拼好，插入后统一缩短类引用（同时补齐 import）并格式化
+     */
+    protected String addTestMethod(PsiClass testClass,
+                                   PsiMethod originalMethod,
+                                   PsiClass containingClass,
+                                   List<JTextComponent> paramTextFieldList) {
+        // 重载方法已占用同名测试方法时追加序号
+        String baseTestMethodName = "test" + capitalize(originalMethod.getName());
+        String testMethodName = baseTestMethodName;
+        for (int index = 2; testClass.findMethodsByName(testMethodName, false).length > 0; index++) {
+            testMethodName = baseTestMethodName + index;
         }
-        return null;
-    }
 
-    private boolean isListOrArrayType(PsiType paramType) {
-        if (paramType instanceof PsiArrayType) {
-            return true;
-        }
-        if (paramType instanceof PsiClassType) {
-            PsiClassType classType = (PsiClassType) paramType;
-            PsiClass resolvedClass = classType.resolve();
-            if (resolvedClass != null) {
-                return "java.util.List".equals(resolvedClass.getQualifiedName());
-            }
+        StringBuilder methodText = new StringBuilder();
+        methodText.append("@org.junit.Test\npublic void ")
+            .append(testMethodName)
+            .append("() throws Exception {\n")
+            .append(buildParameterStatements(testClass, testMethodName, originalMethod, paramTextFieldList))
+            .append(toLowerCaseFirstLetter(containingClass.getName()))
+            .append(".")
+            .append(originalMethod.getName())
+            .append("(");
+        PsiParameter[] parameters = originalMethod.getParameterList().getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            methodText.append(i > 0 ? ", " : "").append(parameters[i].getName());
         }
-        return false;
+        methodText.append(");\n}");
+
+        Project project = testClass.getProject();
+        PsiMethod testMethod = JavaPsiFacade.getElementFactory(project).createMethodFromText(methodText.toString(), testClass);
+        PsiElement addedMethod = testClass.add(testMethod);
+        addedMethod = JavaCodeStyleManager.getInstance(project).shortenClassReferences(addedMethod);
+        CodeStyleManager.getInstance(project).reformat(addedMethod);
+        return testMethodName;
     }
 
-    private String getOuterClassName(String fullyQualifiedTypeName) {
-        if (fullyQualifiedTypeName.contains("<")) {
-            return fullyQualifiedTypeName.substring(0, fullyQualifiedTypeName.indexOf("<"));
-        }
-        return fullyQualifiedTypeName;
+    protected String buildParameterStatements(PsiClass importTarget,
+                                              PsiMethod originalMethod,
+                                              List<JTextComponent> paramTextFieldList) {
+        return buildParameterStatements(importTarget, originalMethod.getName(), originalMethod, paramTextFieldList);
     }
 
-    private void importClassIfNotExists(PsiClass testClass, String fullyQualifiedTypeName) {
-        PsiJavaFile javaFile = (PsiJavaFile) testClass.getContainingFile();
-        PsiImportList importList = javaFile.getImportList();
-        if (importList == null) {
-            return;
+    /**
+     * 生成按用户输入构造各参数的局部变量声明语句，类型均为全限定名，由调用方插入后统一 shortenClassReferences；
+     * 过大的参数写入 src/test/resources/&lt;importTarget&gt;/&lt;fixtureMethodName&gt;/&lt;param&gt;.json 并在运行时流式解析，
+     * 需在写操作中调用
+     */
+    protected String buildParameterStatements(PsiClass importTarget,
+                                              String fixtureMethodName,
+                                              PsiMethod originalMethod,
+                                              List<JTextComponent> paramTextFieldList) {
+        Map<String, String> paramMap = new HashMap<>();
+        for (JTextComponent paramField : paramTextFieldList) {
+            paramMap.put(paramField.getName(), paramField.getText());
         }
 
-        // 解析泛型信息
-        List<String> classNamesToImport = new ArrayList<>();
-        if (fullyQualifiedTypeName.contains("<")) {
-            // 提取主类
-            String mainClassName = fullyQualifiedTypeName.substring(0, fullyQualifiedTypeName.indexOf("<"));
-            classNamesToImport.add(mainClassName);
-
-            // 提取泛型中的实际类
-            String genericPart = fullyQualifiedTypeName.substring(fullyQualifiedTypeName.indexOf("<") + 1, fullyQualifiedTypeName.lastIndexOf(">"));
-            String[] genericClasses = genericPart.split(",");
-            for (String genericClass : genericClasses) {
-                genericClass = genericClass.trim();
-                if (genericClass.contains("<")) {
-                    // 递归处理嵌套泛型
-                    importClassIfNotExists(testClass, genericClass);
-                } else {
-                    classNamesToImport.add(genericClass);
-                }
-            }
-        } else {
-            classNamesToImport.add(fullyQualifiedTypeName);
-        }
-
-        // 导入类
-        PsiElementFactory elementFactory = JavaPsiFacade.getElementFactory(testClass.getProject());
-        for (String className : classNamesToImport) {
-            if (isClassAlreadyImported(importList, className)) {
+        StringBuilder statements = new StringBuilder();
+        for (PsiParameter parameter : originalMethod.getParameterList().getParameters()) {
+            String paramName = parameter.getName();
+            PsiType paramType = parameter.getType();
+            String userInput = paramMap.get(paramName);
+            if (userInput == null) {
                 continue;
             }
-            PsiClass classToImport = JavaPsiFacade.getInstance(testClass.getProject()).findClass(className, GlobalSearchScope.allScope(testClass.getProject()));
-            if (classToImport != null) {
-                PsiImportStatement importStatement = elementFactory.createImportStatement(classToImport);
-                importList.add(importStatement);
+            statements.append(paramType.getCanonicalText()).append(" ").append(paramName).append(" = ");
+            if (isPrimitiveType(paramType)) {
+                statements.append(userInput);
+            } else {
+                String fixturePath = getFixturePath(importTarget, fixtureMethodName, paramName, userInput);
+                statements.append(fixturePath != null
+                    ? "com.alibaba.fastjson2.JSON.parseObject(getClass().getResourceAsStream(\"/" + fixturePath + "\"), "
+                        + typeReference(paramType) + ")"
+                    : buildParseExpression(paramType, "\"" + StringUtil.escapeStringCharacters(userInput) + "\""));
             }
+            statements.append(";\n");
         }
+        return statements.toString();
     }
 
-    private boolean isClassAlreadyImported(PsiImportList importList, String className) {
-        PsiImportStatement[] importStatements = importList.getImportStatements();
-        for (PsiImportStatement importStatement : importStatements) {
-            if (className.equals(importStatement.getQualifiedName())) {
-                return true;
+    /**
+     * 按参数类型的结构选择解析方式：元素为非泛型类的 List/Collection 用 parseArray，
+     * 其余带泛型实参的类型用 TypeReference 保留完整类型，其他类型与数组按擦除后的类解析
+     */
+    private String buildParseExpression(PsiType paramType, String jsonLiteral) {
+        if (paramType instanceof PsiClassType classType && classType.hasParameters()) {
+            PsiClass psiClass = classType.resolve();
+            String qualifiedName = psiClass == null ? null : psiClass.getQualifiedName();
+            PsiType elementType = classType.getParameters()[0];
+            if ((CommonClassNames.JAVA_UTIL_LIST.equals(qualifiedName)
+                || CommonClassNames.JAVA_UTIL_COLLECTION.equals(qualifiedName))
+                && elementType instanceof PsiClassType elementClassType
+                && !elementClassType.hasParameters()) {
+                return "com.alibaba.fastjson2.JSON.parseArray(" + jsonLiteral + ", "
+                    + TypeConversionUtil.erasure(elementType).getCanonicalText() + ".class)";
             }
+            return "com.alibaba.fastjson2.JSON.parseObject(" + jsonLiteral + ", " + typeReference(paramType) + ")";
+        }
+        return "com.alibaba.fastjson2.JSON.parseObject(" + jsonLiteral + ", "
+            + TypeConversionUtil.erasure(paramType).getCanonicalText() + ".class)";
+    }
+
+    private String typeReference(PsiType paramType) {
+        return "new com.alibaba.fastjson2.TypeReference<" + paramType.getCanonicalText() + ">() {}.getType()";
+    }
+
+    /**
+     * 参数引用了已有 fixture 或超过阈值时返回 fixture 的资源路径，超过阈值的参数在此写入文件，否则返回 null
+     */
+    private @Nullable String getFixturePath(PsiClass importTarget,
+                                            String fixtureMethodName,
+                                            String paramName,
+                                            String userInput) {
+        if (userInput.startsWith(FIXTURE_PREFIX)) {
+            return StringUtil.trimStart(userInput.substring(FIXTURE_PREFIX.length()).trim(), "/");
+        }
+        if (userInput.length() <= FIXTURE_THRESHOLD) {
+            return null;
+        }
+        Module module = ModuleUtilCore.findModuleForPsiElement(importTarget);
+        PsiDirectory testResourcesDirectory = module == null ? null : getTestResourcesDirectory(module, true);
+        if (testResourcesDirectory == null) {
+            return null;
+        }
+        String directoryPath = importTarget.getName() + "/" + fixtureMethodName;
+        try {
+            VirtualFile directory =
+                VfsUtil.createDirectoryIfMissing(testResourcesDirectory.getVirtualFile(), directoryPath);
+            VfsUtil.saveText(directory.findOrCreateChildData(this, paramName + ".json"), userInput);
+        } catch (IOException e) {
+            throw new IncorrectOperationException("写入参数 fixture 失败：" + e.getMessage(), e);
         }
-        return false;
+        return directoryPath + "/" + paramName + ".json";
     }
 
-    private String capitalize(String str) {
+    protected String capitalize(String str) {
 
         return str.substring(0, 1).toUpperCase() + str.substring(1);
     }
 
-    private boolean isPrimitiveType(PsiType paramType) {
+    protected boolean isPrimitiveType(PsiType paramType) {
 
         String canonicalText = paramType.getCanonicalText();
         return "String".equals(canonicalText)
@@ -991,7 +1409,7 @@ public class RunJUnitTestAction extends AnAction {
             || "Short".equals(canonicalText);
     }
 
-    private String toLowerCaseFirstLetter(String str) {
+    protected String toLowerCaseFirstLetter(String str) {
 
         if (str == null || str.length() < 2) {
             return str;
@@ -0,0 +1,174 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.project.Project;
+import com.intellij.ui.JBColor;
+import com.intellij.ui.JBSplitter;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import com.intellij.util.ui.JBUI;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.awt.event.MouseEvent;
+import java.util.*;
+import java.util.List;
+
+/**
+ * Spring 启动时间线：左侧为最慢的 Bean（含自身耗时），右侧为 refresh() 各步骤的火焰图
+ */
+public class StartupPanel extends JPanel implements Disposable {
+
+    private static final String BEAN_INSTANTIATE_STEP = "spring.beans.instantiate";
+
+    private static final int TOP_BEANS = 50;
+
+    private final StartupProfiler startupProfiler;
+
+    private final DefaultTableModel beanTableModel =
+        new DefaultTableModel(new String[]{"Bean", "Total (ms)", "Self (ms)"}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+
+    private final FlameChart flameChart = new FlameChart();
+
+    public StartupPanel(Project project) {
+        super(new BorderLayout());
+        this.startupProfiler = StartupProfiler.getInstance(project);
+
+        JBSplitter splitter = new JBSplitter(false, 0.35f);
+        splitter.setFirstComponent(new JBScrollPane(new JBTable(beanTableModel)));
+        splitter.setSecondComponent(new JBScrollPane(flameChart));
+        add(splitter, BorderLayout.CENTER);
+
+        startupProfiler.addListener(this::refresh, this);
+        refresh();
+    }
+
+    @Override
+    public void dispose() {
+        // 服务中的监听器以本面板为父 Disposable 注册，随工具窗口内容一起移除
+    }
+
+    private void refresh() {
+        List<StartupProfiler.StartupStep> steps = startupProfiler.getLastTimeline();
+
+        Map<Long, Long> childDurations = new HashMap<>();
+        for (StartupProfiler.StartupStep step : steps) {
+            childDurations.merge(step.parentId(), step.durationMicros(), Long::sum);
+        }
+        List<StartupProfiler.StartupStep> beans = new ArrayList<>();
+        for (StartupProfiler.StartupStep step : steps) {
+            if (BEAN_INSTANTIATE_STEP.equals(step.name()) && step.beanName() != null) {
+                beans.add(step);
+            }
+        }
+        beans.sort(Comparator.comparingLong(StartupProfiler.StartupStep::durationMicros).reversed());
+
+        beanTableModel.setRowCount(0);
+        for (StartupProfiler.StartupStep bean : beans.subList(0, Math.min(TOP_BEANS, beans.size()))) {
+            long selfMicros = bean.durationMicros() - childDurations.getOrDefault(bean.id(), 0L);
+            beanTableModel.addRow(new Object[]{
+                bean.beanName(),
+                String.format("%.1f", bean.durationMicros() / 1000.0),
+                String.format("%.1f", Math.max(0, selfMicros) / 1000.0)
+            });
+        }
+        flameChart.setSteps(steps);
+    }
+
+    private static class FlameChart extends JComponent {
+
+        private static final int ROW_HEIGHT = 18;
+
+        private static final Color[] COLORS = {
+            new JBColor(new Color(0xF2A65A), new Color(0xA86B32)),
+            new JBColor(new Color(0xEEC170), new Color(0xA8853F)),
+            new JBColor(new Color(0xF58549), new Color(0xAA5A2E))
+        };
+
+        private List<StartupProfiler.StartupStep> steps = Collections.emptyList();
+
+        private final Map<Long, Integer> depths = new HashMap<>();
+
+        private long totalMicros = 1;
+
+        FlameChart() {
+            setToolTipText("");
+        }
+
+        void setSteps(List<StartupProfiler.StartupStep> steps) {
+            this.steps = steps;
+            depths.clear();
+            Map<Long, StartupProfiler.StartupStep> byId = new HashMap<>();
+            totalMicros = 1;
+            for (StartupProfiler.StartupStep step : steps) {
+                byId.put(step.id(), step);
+                totalMicros = Math.max(totalMicros, step.startMicros() + step.durationMicros());
+            }
+            int maxDepth = 0;
+            for (StartupProfiler.StartupStep step : steps) {
+                int depth = 0;
+                StartupProfiler.StartupStep parent = byId.get(step.parentId());
+                while (parent != null && depth < 256) {
+                    depth++;
+                    parent = byId.get(parent.parentId());
+                }
+                depths.put(step.id(), depth);
+                maxDepth = Math.max(maxDepth, depth);
+            }
+            setPreferredSize(new Dimension(JBUI.scale(800), (maxDepth + 1) * JBUI.scale(ROW_HEIGHT)));
+            revalidate();
+            repaint();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            int rowHeight = JBUI.scale(ROW_HEIGHT);
+            FontMetrics metrics = g.getFontMetrics();
+            for (StartupProfiler.StartupStep step : steps) {
+                Rectangle bounds = getBounds(step, rowHeight);
+                if (bounds.width < 1) {
+                    continue;
+                }
+                g.setColor(COLORS[(int) (Math.abs(step.id()) % COLORS.length)]);
+                g.fillRect(bounds.x, bounds.y, bounds.width, bounds.height - 1);
+                String label = getLabel(step);
+                if (metrics.stringWidth(label) < bounds.width - 4) {
+                    g.setColor(JBColor.foreground());
+                    g.drawString(label, bounds.x + 2, bounds.y + rowHeight - metrics.getDescent() - 2);
+                }
+            }
+        }
+
+        @Override
+        public String getToolTipText(MouseEvent event) {
+            int rowHeight = JBUI.scale(ROW_HEIGHT);
+            for (StartupProfiler.StartupStep step : steps) {
+                if (getBounds(step, rowHeight).contains(event.getPoint())) {
+                    return String.format("%s  %.1f ms", getLabel(step), step.durationMicros() / 1000.0);
+                }
+            }
+            return null;
+        }
+
+        private Rectangle getBounds(StartupProfiler.StartupStep step, int rowHeight) {
+            double scale = (double) getWidth() / totalMicros;
+            return new Rectangle(
+                (int) (step.startMicros() * scale),
+                depths.getOrDefault(step.id(), 0) * rowHeight,
+                (int) Math.max(1, step.durationMicros() * scale),
+                rowHeight
+            );
+        }
+
+        private static String getLabel(StartupProfiler.StartupStep step) {
+            return step.beanName() != null ? step.beanName() : step.name();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.execution.RunnerAndConfigurationSettings;
+import com.intellij.execution.junit.JUnitConfiguration;
+import com.intellij.execution.process.ProcessEvent;
+import com.intellij.execution.process.ProcessHandler;
+import com.intellij.execution.process.ProcessListener;
+import com.intellij.execution.runners.ProgramRunner;
+import com.intellij.execution.ui.RunContentDescriptor;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowManager;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.search.GlobalSearchScope;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Spring 上下文启动分析：为测试 JVM 注册 BufferingApplicationStartup，刷新完成后读取时间线展示在工具窗口
+ */
+@Service(Service.Level.PROJECT)
+public final class StartupProfiler {
+
+    public static final String OUTPUT_PROPERTY = "atom.test.startup.output";
+
+    private static final String RECORDER_SIMPLE_NAME = "AtomTestStartupRecorder";
+
+    private static final String RECORDER_CLASS = SupportSources.PACKAGE + "." + RECORDER_SIMPLE_NAME;
+
+    private static final String OUTPUT_MARKER = "[atom-test] startup timeline written";
+
+    private final Project project;
+
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile List<StartupStep> lastTimeline = Collections.emptyList();
+
+    public StartupProfiler(Project project) {
+        this.project = project;
+    }
+
+    public static StartupProfiler getInstance(Project project) {
+        return project.getService(StartupProfiler.class);
+    }
+
+    /**
+     * 启动步骤，时间单位为微秒，startMicros 相对时间线起点
+     */
+    public record StartupStep(long id, long parentId, String name, long startMicros, long durationMicros,
+                              Map<String, String> tags) {
+
+        public @Nullable String beanName() {
+            return tags.get("beanName");
+        }
+    }
+
+    /**
+     * 开启启动分析时为配置加上 initializer 与输出文件参数并返回监听进程输出的回调，否则清除相关参数
+     */
+    public @Nullable ProgramRunner.Callback customize(RunnerAndConfigurationSettings settings,
+                                                      @Nullable ProgramRunner.Callback callback) {
+        if (!(settings.getConfiguration() instanceof JUnitConfiguration configuration)) {
+            return callback;
+        }
+        String vmParameters = VmParameters.initializer(configuration.getVMParameters(), RECORDER_CLASS, false);
+        vmParameters = VmParameters.replace(vmParameters, "-D" + OUTPUT_PROPERTY + "=", null);
+        configuration.setVMParameters(vmParameters);
+
+        Module module = configuration.getConfigurationModule().getModule();
+        if (!FastTestSettings.getInstance(project).isStartupProfiling() || module == null || !ensureRecorder(module)) {
+            return callback;
+        }
+
+        Path output;
+        try {
+            output = Files.createTempFile("atom-test-startup", ".tsv");
+        } catch (IOException e) {
+            TestDaemonManager.getInstance(project).notify("创建启动分析文件失败：" + e.getMessage(), NotificationType.ERROR);
+            return callback;
+        }
+        vmParameters = VmParameters.initializer(vmParameters, RECORDER_CLASS, true);
+        configuration.setVMParameters(
+            VmParameters.replace(vmParameters, "-D" + OUTPUT_PROPERTY + "=", "-D" + OUTPUT_PROPERTY + "=" + output)
+        );
+
+        return new ProgramRunner.Callback() {
+            @Override
+            public void processStarted(RunContentDescriptor descriptor) {
+                if (callback != null) {
+                    callback.processStarted(descriptor);
+                }
+                ProcessHandler processHandler = descriptor == null ? null : descriptor.getProcessHandler();
+                if (processHandler != null) {
+                    attach(processHandler, output);
+                }
+            }
+        };
+    }
+
+    public List<StartupStep> getLastTimeline() {
+        return lastTimeline;
+    }
+
+    /**
+     * 监听器随 parentDisposable 一起移除
+     */
+    public void addListener(Runnable listener, Disposable parentDisposable) {
+        listeners.add(listener);
+        Disposer.register(parentDisposable, () -> listeners.remove(listener));
+    }
+
+    private void attach(ProcessHandler processHandler, Path output) {
+        AtomicBoolean loaded = new AtomicBoolean();
+        processHandler.addProcessListener(new ProcessListener() {
+            @Override
+            public void onTextAvailable(@NotNull ProcessEvent event, @NotNull Key outputType) {
+                if (event.getText().contains(OUTPUT_MARKER) && loaded.compareAndSet(false, true)) {
+                    ApplicationManager.getApplication().executeOnPooledThread(() -> load(output));
+                }
+            }
+
+            @Override
+            public void processTerminated(@NotNull ProcessEvent event) {
+                if (loaded.compareAndSet(false, true)) {
+                    ApplicationManager.getApplication().executeOnPooledThread(() -> load(output));
+                }
+            }
+        });
+    }
+
+    private void load(Path output) {
+        List<StartupStep> steps = new ArrayList<>();
+        try {
+            if (!Files.exists(output) || Files.size(output) == 0) {
+                return;
+            }
+            for (String line : Files.readAllLines(output, StandardCharsets.UTF_8)) {
+                String[] columns = line.split("\t", -1);
+                if (columns.length < 6) {
+                    continue;
+                }
+                Map<String, String> tags = new LinkedHashMap<>();
+                for (String tag : columns[5].split(";")) {
+                    int index = tag.indexOf('=');
+                    if (index > 0) {
+                        tags.put(tag.substring(0, index), tag.substring(index + 1));
+                    }
+                }
+                steps.add(new StartupStep(
+                    Long.parseLong(columns[0]),
+                    Long.parseLong(columns[1]),
+                    columns[2],
+                    Long.parseLong(columns[3]),
+                    Long.parseLong(columns[4]),
+                    tags
+                ));
+            }
+            Files.deleteIfExists(output);
+        } catch (IOException | NumberFormatException e) {
+            TestDaemonManager.getInstance(project).notify("读取启动分析结果失败：" + e.getMessage(), NotificationType.ERROR);
+            return;
+        }
+
+        lastTimeline = steps;
+        ApplicationManager.getApplication().invokeLater(() -> {
+            listeners.forEach(Runnable::run);
+            ToolWindow toolWindow = ToolWindowManager.getInstance(project).getToolWindow(AtomTestToolWindowFactory.ID);
+            if (toolWindow != null) {
+                toolWindow.show();
+            }
+        }, project.getDisposed());
+    }
+
+    /**
+     * 在测试源码目录中生成启动记录器，依赖 Spring Boot 2.4+ 的 BufferingApplicationStartup
+     */
+    private boolean ensureRecorder(Module module) {
+        boolean bootAvailable = JavaPsiFacade.getInstance(project).findClass(
+            "org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup",
+            GlobalSearchScope.moduleWithDependenciesAndLibrariesScope(module, true)
+        ) != null;
+        if (!bootAvailable) {
+            TestDaemonManager.getInstance(project).notify(
+                "启动分析需要 Spring Boot 2.4 及以上版本，本次运行未开启", NotificationType.WARNING
+            );
+            return false;
+        }
+        return SupportSources.ensure(project, module, RECORDER_SIMPLE_NAME);
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.WriteAction;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 生成到用户测试源码 atomtest.support 包中的运行时支持类，源码来自插件的 templates 目录
+ */
+public final class SupportSources {
+
+    public static final String PACKAGE = "atomtest.support";
+
+    private SupportSources() {
+    }
+
+    /**
+     * 模块中不存在 simpleName 对应的支持类，或其版本标记与模板首行不一致时，经用户确认后按同名模板生成或覆盖，
+     * 返回当前版本的支持类是否可用；不可在读操作中调用
+     */
+    public static boolean ensure(Project project, Module module, String simpleName) {
+        PsiClass supportClass = findSupportClass(project, module, simpleName);
+        if (supportClass != null && isCurrent(supportClass, simpleName)) {
+            return true;
+        }
+        return generate(project, module, simpleName, supportClass != null);
+    }
+
+    /**
+     * 模块中的支持类是否由当前版本的模板生成；需在读操作中调用
+     */
+    public static boolean isCurrent(Project project, Module module, String simpleName) {
+        PsiClass supportClass = findSupportClass(project, module, simpleName);
+        return supportClass != null && isCurrent(supportClass, simpleName);
+    }
+
+    private static PsiClass findSupportClass(Project project, Module module, String simpleName) {
+        return JavaPsiFacade.getInstance(project).findClass(
+            PACKAGE + "." + simpleName, GlobalSearchScope.moduleScope(module)
+        );
+    }
+
+    /**
+     * 模板首行是形如 "// atom-test AtomTestProfiler v2" 的版本标记，模板变化时递增
+     */
+    private static boolean isCurrent(PsiClass supportClass, String simpleName) {
+        PsiFile file = supportClass.getContainingFile();
+        String marker = readMarker(simpleName);
+        return file != null && (marker == null || file.getText().contains(marker));
+    }
+
+    private static @Nullable String readMarker(String simpleName) {
+        String source = readTemplate(simpleName);
+        return source == null ? null : source.lines().findFirst().orElse(null);
+    }
+
+    private static @Nullable String readTemplate(String simpleName) {
+        try (InputStream inputStream = SupportSources.class.getResourceAsStream("/templates/" + simpleName + ".txt")) {
+            return inputStream == null ? null : new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static boolean generate(Project project, Module module, String simpleName, boolean outdated) {
+        VirtualFile testRoot = AtomTestFrameworkService.getInstance(project).findTestRoot(module, "java");
+        if (testRoot == null || !confirm(project, testRoot, simpleName, outdated)) {
+            return false;
+        }
+        String source = readTemplate(simpleName);
+        if (source == null) {
+            return false;
+        }
+        try {
+            WriteAction.runAndWait(() -> {
+                VirtualFile directory = VfsUtil.createDirectoryIfMissing(testRoot, PACKAGE.replace('.', '/'));
+                VirtualFile sourceFile = directory.findOrCreateChildData(SupportSources.class, simpleName + ".java");
+                VfsUtil.saveText(sourceFile, source);
+            });
+            return true;
+        } catch (IOException e) {
+            TestDaemonManager.getInstance(project).notify("生成 " + simpleName + " 失败：" + e.getMessage(), NotificationType.ERROR);
+            return false;
+        }
+    }
+
+    /**
+     * 支持类会写入用户的测试源码目录，生成前询问
+     */
+    private static boolean confirm(Project project, VirtualFile testRoot, String simpleName, boolean outdated) {
+        String path = testRoot.getPresentableUrl() + "/" + PACKAGE.replace('.', '/') + "/" + simpleName + ".java";
+        boolean[] confirmed = new boolean[1];
+        ApplicationManager.getApplication().invokeAndWait(() -> confirmed[0] = Messages.showYesNoDialog(
+            project,
+            outdated
+                ? "测试源码中的支持类版本过旧，需要按新模板覆盖：\n" + path + "\n是否覆盖？"
+                : "该功能需要在测试源码中生成支持类：\n" + path + "\n是否生成？",
+            "Generate Support Class",
+            Messages.getQuestionIcon()
+        ) == Messages.YES);
+        return confirmed[0];
+    }
+}
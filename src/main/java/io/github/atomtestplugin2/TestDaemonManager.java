@@ -0,0 +1,339 @@
+package io.github.atomtestplugin2;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.intellij.execution.process.ProcessEvent;
+import com.intellij.execution.process.ProcessHandler;
+import com.intellij.execution.process.ProcessListener;
+import com.intellij.notification.NotificationGroupManager;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 常驻测试 JVM 管理：每个测试类对应一个保持 Spring 上下文存活的 JVM，后续调用通过本地 socket 发送
+ */
+@Service(Service.Level.PROJECT)
+public final class TestDaemonManager {
+
+    public static final String PORT_PROPERTY = "atom.test.daemon.port";
+
+    public static final String TOKEN_PROPERTY = "atom.test.daemon.token";
+
+    public static final String DAEMON_METHOD_NAME = "fastTestDaemon";
+
+    /**
+     * 常驻测试方法模板中的版本标记，模板增加命令时提升版本，测试类中版本不符的方法会被重新生成
+     */
+    public static final String DAEMON_VERSION = "atom-test daemon v4";
+
+    public static final String NOTIFICATION_GROUP = "Atom Test";
+
+    private static final long STARTUP_TIMEOUT_MILLIS = 10 * 60 * 1000L;
+
+    private static final long PROCESS_START_TIMEOUT_MILLIS = 2 * 60 * 1000L;
+
+    private final Project project;
+
+    private final Map<String, Daemon> daemons = new ConcurrentHashMap<>();
+
+    public TestDaemonManager(Project project) {
+        this.project = project;
+    }
+
+    public static TestDaemonManager getInstance(Project project) {
+        return project.getService(TestDaemonManager.class);
+    }
+
+    public boolean isAlive(String testClassName) {
+        Daemon daemon = daemons.get(testClassName);
+        return daemon != null && (daemon.processHandler() == null || !daemon.processHandler().isProcessTerminated());
+    }
+
+    public int allocatePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * 每个常驻 JVM 的随机令牌，经系统属性传入，常驻 JVM 只执行携带该令牌的请求
+     */
+    public String createToken() {
+        byte[] bytes = new byte[16];
+        new SecureRandom().nextBytes(bytes);
+        return HexFormat.of().formatHex(bytes);
+    }
+
+    /**
+     * 启动前登记端口与令牌，进程启动前发送的调用会等待进程就绪
+     */
+    public void expect(String testClassName, int port, String token) {
+        daemons.put(testClassName, new Daemon(port, token, null, System.currentTimeMillis()));
+    }
+
+    public void register(String testClassName, int port, String token, ProcessHandler processHandler) {
+        Daemon daemon = new Daemon(port, token, processHandler, System.currentTimeMillis());
+        daemons.put(testClassName, daemon);
+        processHandler.addProcessListener(new ProcessListener() {
+            @Override
+            public void processTerminated(@NotNull ProcessEvent event) {
+                daemons.remove(testClassName, daemon);
+            }
+        });
+    }
+
+    /**
+     * 在后台向常驻 JVM 发送一次调用，JVM 仍在启动时会等待端口就绪
+     */
+    public void invoke(String testClassName,
+                       String methodName,
+                       List<String> parameterTypes,
+                       List<String> jsonArgs) {
+        JsonObject request = createRequest(methodName, parameterTypes, jsonArgs);
+        submit("Invoking " + methodName, testClassName, request, response -> {
+            double millis = response.get("elapsedNanos").getAsLong() / 1_000_000.0;
+            notify(
+                String.format("%s 执行耗时 %.3f ms\n返回值：%s", methodName, millis,
+                    response.get("result").getAsString()
+                ),
+                NotificationType.INFORMATION
+            );
+        });
+    }
+
+    /**
+     * 在常驻 JVM 中对方法做预热与多次计时调用，结果写入 Atom Test 工具窗口
+     */
+    public void benchmark(String testClassName,
+                          String methodName,
+                          List<String> parameterTypes,
+                          List<String> jsonArgs,
+                          int warmup,
+                          int iterations) {
+        JsonObject request = createRequest(methodName, parameterTypes, jsonArgs);
+        request.addProperty("command", "benchmark");
+        request.addProperty("warmup", warmup);
+        request.addProperty("iterations", iterations);
+
+        BenchmarkResults benchmarkResults = BenchmarkResults.getInstance(project);
+        benchmarkResults.setLastRun(
+            () -> benchmark(testClassName, methodName, parameterTypes, jsonArgs, warmup, iterations)
+        );
+        submit("Benchmarking " + methodName, testClassName, request, response -> {
+            if (!response.has("iterations")) {
+                stopOutdated(testClassName, "Benchmark");
+                return;
+            }
+            benchmarkResults.add(new BenchmarkResults.BenchmarkResult(
+                testClassName + "#" + methodName,
+                System.currentTimeMillis(),
+                response.get("iterations").getAsInt(),
+                response.get("totalNanos").getAsLong(),
+                response.get("p50").getAsLong(),
+                response.get("p90").getAsLong(),
+                response.get("p99").getAsLong(),
+                response.get("max").getAsLong(),
+                response.get("allocatedBytesPerOp").getAsLong()
+            ));
+        });
+    }
+
+    /**
+     * 在常驻 JVM 中用 JFR 记录方法的多次调用，解析后在 Atom Test 工具窗口中显示火焰图
+     */
+    public void profile(String testClassName,
+                        String methodName,
+                        String targetClassName,
+                        List<String> parameterTypes,
+                        List<String> jsonArgs,
+                        int rounds) {
+        JsonObject request = createRequest(methodName, parameterTypes, jsonArgs);
+        request.addProperty("command", "profile");
+        request.addProperty("rounds", rounds);
+
+        submit("Profiling " + methodName, testClassName, request, response -> {
+            if (!response.has("recording")) {
+                stopOutdated(testClassName, "Profile");
+                return;
+            }
+            JfrProfiles.getInstance(project).load(
+                targetClassName,
+                methodName,
+                Paths.get(response.get("recording").getAsString()),
+                response.get("threadId").getAsLong(),
+                rounds,
+                response.get("totalNanos").getAsLong()
+            );
+        });
+    }
+
+    /**
+     * 在常驻 JVM 中统计方法每次调用的分配字节数与 GC，并从 JFR 分配采样中找出主要分配位置，结果显示在编辑器行标记中
+     */
+    public void allocations(String testClassName,
+                            String methodName,
+                            String signature,
+                            List<String> parameterTypes,
+                            List<String> jsonArgs,
+                            int rounds) {
+        JsonObject request = createRequest(methodName, parameterTypes, jsonArgs);
+        request.addProperty("command", "allocations");
+        request.addProperty("rounds", rounds);
+
+        submit("Measuring allocations of " + methodName, testClassName, request, response -> {
+            if (!response.has("allocatedBytes")) {
+                stopOutdated(testClassName, "分配统计");
+                return;
+            }
+            AllocationReports.getInstance(project).load(
+                signature,
+                rounds,
+                response,
+                Paths.get(response.get("recording").getAsString()),
+                response.get("threadId").getAsLong()
+            );
+        });
+    }
+
+    private JsonObject createRequest(String methodName, List<String> parameterTypes, List<String> jsonArgs) {
+        JsonObject request = new JsonObject();
+        request.addProperty("method", methodName);
+        JsonArray typeArray = new JsonArray();
+        parameterTypes.forEach(typeArray::add);
+        request.add("parameterTypes", typeArray);
+        JsonArray argArray = new JsonArray();
+        jsonArgs.forEach(argArray::add);
+        request.add("args", argArray);
+        return request;
+    }
+
+    private void submit(String title, String testClassName, JsonObject request, Consumer<JsonObject> onSuccess) {
+        new Task.Backgroundable(project, title, true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                try {
+                    JsonObject response = send(testClassName, request, indicator);
+                    if (response == null) {
+                        TestDaemonManager.this.notify("常驻测试进程已退出：" + testClassName, NotificationType.ERROR);
+                        return;
+                    }
+                    if (response.get("ok").getAsBoolean()) {
+                        onSuccess.accept(response);
+                    } else {
+                        TestDaemonManager.this.notify(
+                            request.get("method").getAsString() + " 执行异常：\n" + response.get("error").getAsString(),
+                            NotificationType.ERROR
+                        );
+                    }
+                } catch (IOException ex) {
+                    TestDaemonManager.this.notify("调用常驻测试进程失败：" + ex.getMessage(), NotificationType.ERROR);
+                }
+            }
+        }.queue();
+    }
+
+    /**
+     * 常驻 JVM 仍在运行旧版本的常驻测试方法，停止后下次运行会以重新生成的方法启动
+     */
+    private void stopOutdated(String testClassName, String feature) {
+        shutdown(testClassName);
+        notify("常驻 JVM 运行的常驻测试方法版本过旧，不支持" + feature + "，已停止，请重新运行", NotificationType.WARNING);
+    }
+
+    public void shutdown(String testClassName) {
+        Daemon daemon = daemons.remove(testClassName);
+        if (daemon != null && daemon.processHandler() != null) {
+            daemon.processHandler().destroyProcess();
+        }
+    }
+
+    JsonObject send(String testClassName, JsonObject request, ProgressIndicator indicator) throws IOException {
+        long deadline = System.currentTimeMillis() + STARTUP_TIMEOUT_MILLIS;
+        while (true) {
+            indicator.checkCanceled();
+            Daemon daemon = daemons.get(testClassName);
+            if (daemon == null) {
+                return null;
+            }
+            if (daemon.processHandler() == null) {
+                // 进程尚未启动，超时视为启动失败
+                if (System.currentTimeMillis() - daemon.registeredAt() > PROCESS_START_TIMEOUT_MILLIS) {
+                    daemons.remove(testClassName, daemon);
+                    return null;
+                }
+                sleep();
+                continue;
+            }
+            if (daemon.processHandler().isProcessTerminated()) {
+                return null;
+            }
+            Socket socket = new Socket();
+            try {
+                socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), daemon.port()), 1000);
+            } catch (IOException ex) {
+                socket.close();
+                // 上下文尚未启动完成，端口还未监听
+                if (System.currentTimeMillis() > deadline) {
+                    throw ex;
+                }
+                sleep();
+                continue;
+            }
+            // 连接建立后请求可能已被执行，之后的异常直接抛出而不重试，避免同一方法被调用两次
+            try (socket) {
+                PrintWriter writer =
+                    new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+                BufferedReader reader =
+                    new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                JsonObject authorized = request.deepCopy();
+                authorized.addProperty("token", daemon.token());
+                writer.println(authorized);
+                String line = reader.readLine();
+                return line == null ? null : JsonParser.parseString(line).getAsJsonObject();
+            }
+        }
+    }
+
+    private void sleep() throws IOException {
+        try {
+            Thread.sleep(500);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw new IOException(interrupted);
+        }
+    }
+
+    void notify(String content, NotificationType type) {
+        NotificationGroupManager.getInstance()
+            .getNotificationGroup(NOTIFICATION_GROUP)
+            .createNotification(content, type)
+            .notify(project);
+    }
+
+    private record Daemon(int port, String token, @Nullable ProcessHandler processHandler, long registeredAt) {
+    }
+}
@@ -0,0 +1,254 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.*;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.util.TypeConversionUtil;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * 生成测试方法索引：key 为 DynamicResource 目标类型与被调用方法签名，value 为调用它的测试方法名
+ */
+public class TestMethodIndex extends FileBasedIndexExtension<String, String> {
+
+    public static final ID<String, String> NAME = ID.create("io.github.atomtestplugin2.TestMethodIndex");
+
+    private static final String DYNAMIC_RESOURCE = "DynamicResource";
+
+    @Override
+    public @NotNull ID<String, String> getName() {
+        return NAME;
+    }
+
+    @Override
+    public @NotNull DataIndexer<String, String, FileContent> getIndexer() {
+        return inputData -> {
+            Map<String, String> result = new HashMap<>();
+            if (!inputData.getContentAsText().toString().contains(DYNAMIC_RESOURCE)
+                || !(inputData.getPsiFile() instanceof PsiJavaFile javaFile)) {
+                return result;
+            }
+            for (PsiClass psiClass : javaFile.getClasses()) {
+                indexTestClass(javaFile, psiClass, result);
+            }
+            return result;
+        };
+    }
+
+    @Override
+    public @NotNull KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @Override
+    public @NotNull DataExternalizer<String> getValueExternalizer() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @Override
+    public int getVersion() {
+        return 2;
+    }
+
+    @Override
+    public FileBasedIndex.@NotNull InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(JavaFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    /**
+     * 在 scope 内查找调用了 originalMethod 的测试方法，优先精确签名匹配；索引时无法推断实参类型的调用按参数个数匹配，
+     * 此时需解析调用确认指向 originalMethod，以免同名同参数个数的重载互相匹配
+     */
+    public static @Nullable PsiMethod findTestMethod(Project project, PsiMethod originalMethod, GlobalSearchScope scope) {
+        if (DumbService.isDumb(project)) {
+            return null;
+        }
+        String signature = signature(originalMethod);
+        if (signature == null) {
+            return null;
+        }
+        String prefix = signature.substring(0, signature.indexOf('('));
+        int parameterCount = originalMethod.getParameterList().getParametersCount();
+
+        PsiMethod testMethod = findByKey(project, signature, scope, method -> true);
+        if (testMethod == null) {
+            testMethod = findByKey(project, prefix + "/" + parameterCount, scope, method -> calls(method, originalMethod));
+        }
+        return testMethod;
+    }
+
+    /**
+     * 方法的精确签名键：类全限定名#方法名(参数简单类型)，所在类没有全限定名时返回 null
+     */
+    public static @Nullable String signature(PsiMethod method) {
+        PsiClass containingClass = method.getContainingClass();
+        if (containingClass == null || containingClass.getQualifiedName() == null) {
+            return null;
+        }
+        StringBuilder signature = new StringBuilder(containingClass.getQualifiedName())
+            .append("#").append(method.getName()).append("(");
+        PsiParameter[] parameters = method.getParameterList().getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            if (i > 0) {
+                signature.append(",");
+            }
+            PsiType type = parameters[i].getType();
+            if (type instanceof PsiEllipsisType ellipsisType) {
+                type = ellipsisType.toArrayType();
+            }
+            signature.append(simpleTypeName(TypeConversionUtil.erasure(type).getPresentableText()));
+        }
+        return signature.append(")").toString();
+    }
+
+    private static boolean calls(PsiMethod testMethod, PsiMethod originalMethod) {
+        PsiManager psiManager = originalMethod.getManager();
+        for (PsiMethodCallExpression call : PsiTreeUtil.findChildrenOfType(testMethod, PsiMethodCallExpression.class)) {
+            if (psiManager.areElementsEquivalent(call.resolveMethod(), originalMethod)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static @Nullable PsiMethod findByKey(Project project,
+                                                 String key,
+                                                 GlobalSearchScope scope,
+                                                 Predicate<PsiMethod> accepted) {
+        PsiManager psiManager = PsiManager.getInstance(project);
+        PsiMethod[] found = new PsiMethod[1];
+        FileBasedIndex.getInstance().processValues(NAME, key, null, (file, testMethodName) -> {
+            PsiFile psiFile = psiManager.findFile(file);
+            if (psiFile instanceof PsiJavaFile javaFile) {
+                for (PsiClass psiClass : javaFile.getClasses()) {
+                    for (PsiMethod method : psiClass.findMethodsByName(testMethodName, false)) {
+                        if (accepted.test(method)) {
+                            found[0] = method;
+                            return false;
+                        }
+                    }
+                }
+            }
+            return true;
+        }, scope);
+        return found[0];
+    }
+
+    private static void indexTestClass(PsiJavaFile javaFile, PsiClass psiClass, Map<String, String> result) {
+        // 字段名 -> DynamicResource 目标类型全限定名
+        Map<String, String> resourceFields = new HashMap<>();
+        for (PsiField field : psiClass.getFields()) {
+            PsiModifierList modifierList = field.getModifierList();
+            PsiTypeElement typeElement = field.getTypeElement();
+            if (modifierList == null || typeElement == null) {
+                continue;
+            }
+            for (PsiAnnotation annotation : modifierList.getAnnotations()) {
+                PsiJavaCodeReferenceElement nameReference = annotation.getNameReferenceElement();
+                if (nameReference != null && DYNAMIC_RESOURCE.equals(nameReference.getReferenceName())) {
+                    resourceFields.put(field.getName(), qualify(javaFile, eraseGenerics(typeElement.getText())));
+                }
+            }
+        }
+        if (resourceFields.isEmpty()) {
+            return;
+        }
+
+        for (PsiMethod method : psiClass.getMethods()) {
+            PsiCodeBlock body = method.getBody();
+            if (body == null) {
+                continue;
+            }
+            Map<String, String> localTypes = new HashMap<>();
+            for (PsiLocalVariable variable : PsiTreeUtil.findChildrenOfType(body, PsiLocalVariable.class)) {
+                localTypes.put(variable.getName(), simpleTypeName(variable.getTypeElement().getText()));
+            }
+            for (PsiMethodCallExpression call : PsiTreeUtil.findChildrenOfType(body, PsiMethodCallExpression.class)) {
+                PsiReferenceExpression methodExpression = call.getMethodExpression();
+                if (!(methodExpression.getQualifierExpression() instanceof PsiReferenceExpression qualifier)) {
+                    continue;
+                }
+                String target = resourceFields.get(qualifier.getReferenceName());
+                if (target == null) {
+                    continue;
+                }
+                String prefix = target + "#" + methodExpression.getReferenceName();
+                PsiExpression[] arguments = call.getArgumentList().getExpressions();
+
+                StringBuilder signature = new StringBuilder(prefix).append("(");
+                boolean resolved = true;
+                for (int i = 0; i < arguments.length; i++) {
+                    String argumentType = arguments[i] instanceof PsiReferenceExpression argument
+                        ? localTypes.get(argument.getReferenceName())
+                        : null;
+                    if (argumentType == null || "var".equals(argumentType)) {
+                        resolved = false;
+                        break;
+                    }
+                    signature.append(i > 0 ? "," : "").append(argumentType);
+                }
+                // 实参类型无法推断时才写入按参数个数的键，查询时再解析调用区分重载
+                result.putIfAbsent(
+                    resolved ? signature.append(")").toString() : prefix + "/" + arguments.length, method.getName()
+                );
+            }
+        }
+    }
+
+    /**
+     * 索引阶段不能解析引用，根据 import 和包名推断简单类名的全限定名
+     */
+    private static String qualify(PsiJavaFile javaFile, String typeText) {
+        if (typeText.contains(".")) {
+            return typeText;
+        }
+        PsiImportList importList = javaFile.getImportList();
+        if (importList != null) {
+            for (PsiImportStatement importStatement : importList.getImportStatements()) {
+                String qualifiedName = importStatement.getQualifiedName();
+                if (qualifiedName != null && qualifiedName.endsWith("." + typeText)) {
+                    return qualifiedName;
+                }
+            }
+        }
+        String packageName = javaFile.getPackageName();
+        return packageName.isEmpty() ? typeText : packageName + "." + typeText;
+    }
+
+    private static String simpleTypeName(String typeText) {
+        String erased = eraseGenerics(typeText).replace("...", "[]");
+        return erased.substring(erased.lastIndexOf('.', erased.indexOf('[') < 0 ? erased.length() : erased.indexOf('[')) + 1);
+    }
+
+    private static String eraseGenerics(String typeText) {
+        StringBuilder builder = new StringBuilder();
+        int depth = 0;
+        for (char c : typeText.toCharArray()) {
+            if (c == '<') {
+                depth++;
+            } else if (c == '>') {
+                depth--;
+            } else if (depth == 0 && !Character.isWhitespace(c)) {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.LangDataKeys;
+import com.intellij.openapi.actionSystem.ToggleAction;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 开关：当前类对应的测试类以 Debug 方式运行 Fast Test，测试方法生成后仍可切换
+ */
+public class ToggleDebugLaunchAction extends ToggleAction {
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        super.update(e);
+        e.getPresentation().setEnabledAndVisible(getTestClassName(e) != null);
+    }
+
+    @Override
+    public boolean isSelected(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        String testClassName = getTestClassName(e);
+        return project != null && testClassName != null
+            && FastTestSettings.getInstance(project).getLaunchMode(testClassName) == LaunchMode.DEBUG;
+    }
+
+    @Override
+    public void setSelected(@NotNull AnActionEvent e, boolean state) {
+        Project project = e.getProject();
+        String testClassName = getTestClassName(e);
+        if (project != null && testClassName != null) {
+            FastTestSettings.getInstance(project).setLaunchMode(testClassName, state ? LaunchMode.DEBUG : LaunchMode.RUN);
+        }
+    }
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    /**
+     * 选中被测类中的元素时取其测试类 &lt;类名&gt;Test，选中测试类本身时取测试类
+     */
+    static @Nullable String getTestClassName(AnActionEvent e) {
+        PsiElement element = e.getData(LangDataKeys.PSI_ELEMENT);
+        PsiClass psiClass = element instanceof PsiClass selectedClass
+            ? selectedClass
+            : PsiTreeUtil.getParentOfType(element, PsiClass.class);
+        while (psiClass != null && psiClass.getContainingClass() != null) {
+            psiClass = psiClass.getContainingClass();
+        }
+        String qualifiedName = psiClass == null ? null : psiClass.getQualifiedName();
+        if (qualifiedName == null) {
+            return null;
+        }
+        return qualifiedName.endsWith("Test") ? qualifiedName : qualifiedName + "Test";
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.ToggleAction;
+import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * 开关：当前类对应的测试类运行时把远程客户端替换为本地 Stub，测试方法生成后仍可切换
+ */
+public class ToggleRemoteStubsAction extends ToggleAction {
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        super.update(e);
+        e.getPresentation().setEnabledAndVisible(ToggleDebugLaunchAction.getTestClassName(e) != null);
+    }
+
+    @Override
+    public boolean isSelected(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        String testClassName = ToggleDebugLaunchAction.getTestClassName(e);
+        return project != null && testClassName != null
+            && FastTestSettings.getInstance(project).isRemoteStubs(testClassName);
+    }
+
+    @Override
+    public void setSelected(@NotNull AnActionEvent e, boolean state) {
+        Project project = e.getProject();
+        String testClassName = ToggleDebugLaunchAction.getTestClassName(e);
+        if (project != null && testClassName != null) {
+            FastTestSettings.getInstance(project).setRemoteStubs(testClassName, state);
+        }
+    }
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.util.execution.ParametersListUtil;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 运行配置 VM 参数的增删工具，按参数前缀识别由插件维护的参数
+ */
+public final class VmParameters {
+
+    private static final String INITIALIZER_OPTION = "-Dcontext.initializer.classes=";
+
+    private VmParameters() {
+    }
+
+    /**
+     * 删除所有以 prefix 开头的参数，option 不为 null 时追加 option
+     */
+    public static String replace(@Nullable String vmParameters, String prefix, @Nullable String option) {
+        List<String> parameters = new ArrayList<>(ParametersListUtil.parse(vmParameters == null ? "" : vmParameters));
+        parameters.removeIf(parameter -> parameter.startsWith(prefix));
+        if (option != null) {
+            parameters.add(option);
+        }
+        return ParametersListUtil.join(parameters);
+    }
+
+    /**
+     * 在 context.initializer.classes 中加入或移除 initializerClass，保留其他 initializer，列表为空时删除该参数
+     */
+    public static String initializer(@Nullable String vmParameters, String initializerClass, boolean enabled) {
+        List<String> initializers = new ArrayList<>();
+        for (String parameter : ParametersListUtil.parse(vmParameters == null ? "" : vmParameters)) {
+            if (parameter.startsWith(INITIALIZER_OPTION)) {
+                initializers.addAll(StringUtil.split(parameter.substring(INITIALIZER_OPTION.length()), ","));
+            }
+        }
+        initializers.remove(initializerClass);
+        if (enabled) {
+            initializers.add(initializerClass);
+        }
+        return replace(
+            vmParameters,
+            INITIALIZER_OPTION,
+            initializers.isEmpty() ? null : INITIALIZER_OPTION + String.join(",", initializers)
+        );
+    }
+}
@@ -0,0 +1,228 @@
+package io.github.atomtestplugin2;
+
+import com.intellij.execution.RunnerAndConfigurationSettings;
+import com.intellij.execution.junit.JUnitConfiguration;
+import com.intellij.execution.process.ProcessHandler;
+import com.intellij.execution.runners.ProgramRunner;
+import com.intellij.execution.ui.RunContentDescriptor;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import com.intellij.psi.codeStyle.CodeStyleManager;
+import com.intellij.psi.util.TypeConversionUtil;
+import com.intellij.rt.execution.junit.RepeatCount;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.text.JTextComponent;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 常驻模式：首次运行启动保持上下文的测试 JVM，之后同一测试类的方法调用直接通过 socket 发送
+ */
+public class WarmRunJUnitTestAction extends RunJUnitTestAction {
+
+    @Override
+    protected void onTestClassReady(PsiMethod method,
+                                    Project project,
+                                    PsiClass testClass,
+                                    PsiClass containingClass,
+                                    Module module) {
+        List<JTextComponent> paramTextFieldList = showParameterDialog(method, project);
+        if (paramTextFieldList == null) {
+            return;
+        }
+
+        Map<String, String> paramMap = new HashMap<>();
+        for (JTextComponent paramField : paramTextFieldList) {
+            paramMap.put(paramField.getName(), paramField.getText());
+        }
+        List<String> parameterTypes = new ArrayList<>();
+        List<String> jsonArgs = new ArrayList<>();
+        for (PsiParameter parameter : method.getParameterList().getParameters()) {
+            String userInput = paramMap.get(parameter.getName());
+            if (userInput.startsWith(FIXTURE_PREFIX)) {
+                userInput = readFixture(module, userInput);
+                if (userInput == null) {
+                    return;
+                }
+            }
+            // 可变参数按数组传递，与常驻 JVM 中反射得到的类型名一致
+            PsiType parameterType = parameter.getType() instanceof PsiEllipsisType ellipsisType
+                ? ellipsisType.toArrayType()
+                : parameter.getType();
+            parameterTypes.add(TypeConversionUtil.erasure(parameterType).getCanonicalText());
+            jsonArgs.add(toJsonArgument(parameter.getType(), userInput));
+        }
+
+        if (!confirmDispatch(project, method)) {
+            return;
+        }
+
+        PsiMethod daemonMethod = findOrCreateDaemonMethod(testClass, containingClass);
+        if (daemonMethod == null) {
+            Messages.showMessageDialog(project, "创建常驻测试方法失败", "Error", Messages.getErrorIcon());
+            return;
+        }
+        TestDaemonManager daemonManager = TestDaemonManager.getInstance(project);
+        String testClassName = testClass.getQualifiedName();
+        if (!daemonManager.isAlive(testClassName) && !startDaemon(project, testClass, daemonMethod, module)) {
+            return;
+        }
+        dispatch(daemonManager, testClassName, method, parameterTypes, jsonArgs);
+    }
+
+    /**
+     * 将调用发送给常驻 JVM
+     */
+    protected void dispatch(TestDaemonManager daemonManager,
+                            String testClassName,
+                            PsiMethod method,
+                            List<String> parameterTypes,
+                            List<String> jsonArgs) {
+        daemonManager.invoke(testClassName, method.getName(), parameterTypes, jsonArgs);
+    }
+
+    /**
+     * 发送前的额外确认，返回 false 时取消本次调用
+     */
+    protected boolean confirmDispatch(Project project, PsiMethod method) {
+        return true;
+    }
+
+    private boolean startDaemon(Project project, PsiClass testClass, PsiMethod daemonMethod, Module module) {
+        TestDaemonManager daemonManager = TestDaemonManager.getInstance(project);
+        int port;
+        try {
+            port = daemonManager.allocatePort();
+        } catch (IOException ex) {
+            Messages.showMessageDialog(project, "分配端口失败：" + ex.getMessage(), "Error", Messages.getErrorIcon());
+            return false;
+        }
+
+        RunnerAndConfigurationSettings configurationSettings = createJUnitConfiguration(daemonMethod, project, module);
+        JUnitConfiguration configuration = (JUnitConfiguration) configurationSettings.getConfiguration();
+        configuration.setRepeatMode(RepeatCount.ONCE);
+        // 缓存复用的配置中可能保留上一次的端口与令牌参数
+        String token = daemonManager.createToken();
+        String portOption = "-D" + TestDaemonManager.PORT_PROPERTY + "=";
+        String tokenOption = "-D" + TestDaemonManager.TOKEN_PROPERTY + "=";
+        String vmParameters = VmParameters.replace(configuration.getVMParameters(), portOption, portOption + port);
+        configuration.setVMParameters(VmParameters.replace(vmParameters, tokenOption, tokenOption + token));
+
+        String testClassName = testClass.getQualifiedName();
+        daemonManager.expect(testClassName, port, token);
+        // 常驻 JVM 用于计时与采样，不附加调试器：JDWP 会影响 JIT，被测方法首行的断点也会拦住每次调用
+        runConfiguration(configurationSettings, project, LaunchMode.RUN, new ProgramRunner.Callback() {
+            @Override
+            public void processStarted(RunContentDescriptor descriptor) {
+                ProcessHandler processHandler = descriptor == null ? null : descriptor.getProcessHandler();
+                if (processHandler != null) {
+                    daemonManager.register(testClassName, port, token, processHandler);
+                }
+            }
+        });
+        return true;
+    }
+
+    /**
+     * 查找常驻测试方法，不存在或版本标记与模板不符时按模板重新生成，并停止运行旧方法的常驻 JVM
+     */
+    private PsiMethod findOrCreateDaemonMethod(PsiClass testClass, PsiClass containingClass) {
+        PsiMethod[] existMethods = testClass.findMethodsByName(TestDaemonManager.DAEMON_METHOD_NAME, false);
+        if (existMethods.length > 0 && existMethods[0].getText().contains(TestDaemonManager.DAEMON_VERSION)) {
+            return existMethods[0];
+        }
+
+        String template = loadDaemonTemplate();
+        if (template == null) {
+            return null;
+        }
+        String methodText = template.replace("${beanField}", toLowerCaseFirstLetter(containingClass.getName()));
+
+        Project project = testClass.getProject();
+        if (existMethods.length > 0) {
+            TestDaemonManager.getInstance(project).shutdown(testClass.getQualifiedName());
+        }
+        WriteCommandAction.runWriteCommandAction(
+            project, (Computable<PsiElement>) () -> {
+                for (PsiMethod staleMethod : existMethods) {
+                    staleMethod.delete();
+                }
+                PsiMethod daemonMethod =
+                    JavaPsiFacade.getElementFactory(project).createMethodFromText(methodText, testClass);
+                return CodeStyleManager.getInstance(project).reformat(testClass.add(daemonMethod));
+            }
+        );
+        commitDocment(testClass);
+
+        PsiMethod[] createdMethods = testClass.findMethodsByName(TestDaemonManager.DAEMON_METHOD_NAME, false);
+        return createdMethods.length > 0 ? createdMethods[0] : null;
+    }
+
+    private String loadDaemonTemplate() {
+        try (InputStream inputStream = getClass().getResourceAsStream("/templates/fastTestDaemon.txt")) {
+            if (inputStream == null) {
+                return null;
+            }
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * 读取参数引用的 fixture 文件内容，文件不存在或读取失败时提示并返回 null
+     */
+    private @Nullable String readFixture(Module module, String userInput) {
+        String fixturePath = StringUtil.trimStart(userInput.substring(FIXTURE_PREFIX.length()).trim(), "/");
+        PsiDirectory testResourcesDirectory = getTestResourcesDirectory(module, false);
+        VirtualFile fixture = testResourcesDirectory == null
+            ? null
+            : testResourcesDirectory.getVirtualFile().findFileByRelativePath(fixturePath);
+        if (fixture == null) {
+            Messages.showMessageDialog(
+                module.getProject(), "未找到 fixture 文件 src/test/resources/" + fixturePath, "Error", Messages.getErrorIcon()
+            );
+            return null;
+        }
+        try {
+            return VfsUtil.loadText(fixture);
+        } catch (IOException e) {
+            Messages.showMessageDialog(
+                module.getProject(), "读取 fixture 文件失败：" + e.getMessage(), "Error", Messages.getErrorIcon()
+            );
+            return null;
+        }
+    }
+
+    /**
+     * 将输入框中的 Java 字面量转换为 JSON，复杂类型本身就是 JSON
+     */
+    private String toJsonArgument(PsiType paramType, String userInput) {
+        String value = userInput.trim();
+        if (!isPrimitiveType(paramType)) {
+            return value;
+        }
+        String typeText = paramType.getCanonicalText();
+        if ("char".equals(typeText) && value.length() >= 2 && value.startsWith("'") && value.endsWith("'")) {
+            return "\"" + value.substring(1, value.length() - 1) + "\"";
+        }
+        if (!"String".equals(typeText) && value.matches("-?[0-9.]+[lLfFdD]")) {
+            return value.substring(0, value.length() - 1);
+        }
+        return value;
+    }
+}